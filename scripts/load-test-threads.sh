@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Runs the same load against the app with platform and with virtual request threads
+# and prints hey's summary for each mode, followed by the pinning count.
+#
+# Requires a packaged jar (mvn -DskipTests package) and hey (https://github.com/rakyll/hey).
+# Tunables: CONCURRENCY, DURATION, USERS, TARGET_PATH, PORT.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JAR=$(ls target/ai-devsecops-app-*.jar | head -n 1)
+PORT=${PORT:-8089}
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-30s}
+USERS=${USERS:-5000}
+TARGET_PATH=${TARGET_PATH:-/api/users?limit=50}
+BASE_URL="http://localhost:${PORT}"
+
+seed_users() {
+    local i
+    for ((i = 0; i < USERS; i++)); do
+        printf '{"name":"Load %d","email":"load%d@example.com"}\n' "$i" "$i"
+    done | curl -sf -o /dev/null -X POST -H 'Content-Type: application/x-ndjson' --data-binary @- "${BASE_URL}/api/users/batch"
+}
+
+run_mode() {
+    local virtual=$1
+    # Admission control is off so both modes see the full offered load
+    java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" \
+        --app.rate-limit.enabled=false --app.concurrency-limit.enabled=false \
+        --spring.jpa.show-sql=false > "target/load-test-virtual-${virtual}.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf -o /dev/null "${BASE_URL}/actuator/health"; do
+        sleep 1
+    done
+    seed_users
+
+    echo "=== spring.threads.virtual.enabled=${virtual} (c=${CONCURRENCY}, ${DURATION}, ${TARGET_PATH})"
+    hey -z "$DURATION" -c "$CONCURRENCY" "${BASE_URL}${TARGET_PATH}" | sed -n '/^Summary:/,/^Details/p'
+    if [[ "$virtual" == "true" ]]; then
+        echo "Pinned virtual threads:"
+        curl -sf "${BASE_URL}/actuator/metrics/jvm.threads.virtual.pinned" || echo "  none recorded"
+        echo
+    fi
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode false
+run_mode true
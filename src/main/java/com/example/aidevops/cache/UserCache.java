@@ -0,0 +1,171 @@
+package com.example.aidevops.cache;
+
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for single-user lookups by id and by email.
+ * Caffeine's W-TinyLFU admission keeps the hot subset resident; entries are
+ * invalidated as soon as a change to the user has been committed. Entries are
+ * futures claimed with a plain put-if-absent and loaded outside the map, so no
+ * caller ever blocks (and pins a virtual thread's carrier) inside a map lock.
+ */
+@Component
+public class UserCache {
+
+    private final boolean enabled;
+    private final AsyncCache<Long, UserSummary> byId;
+    private final AsyncCache<String, UserSummary> byEmail;
+    // Emails currently cached per user id, so a change can drop the old email key without scanning
+    private final ConcurrentHashMap<Long, Set<String>> emailsById = new ConcurrentHashMap<>();
+
+    public UserCache(@Value("${app.users.cache.enabled:true}") boolean enabled,
+                     @Value("${app.users.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${app.users.cache.ttl:10m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((String email, UserSummary user, RemovalCause cause) -> {
+                    if (user != null) {
+                        unindex(user.id(), email);
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.byEmail");
+    }
+
+    /**
+     * Returns a cached entry without loading or waiting; empty means "not cached", not "no such user".
+     */
+    public Optional<UserSummary> peekById(Long id) {
+        return enabled ? loaded(byId.getIfPresent(id)) : Optional.empty();
+    }
+
+    public Optional<UserSummary> peekByEmail(String email) {
+        return enabled ? loaded(byEmail.getIfPresent(email)) : Optional.empty();
+    }
+
+    /**
+     * Completes with the cached user, or with the result of {@code loader}, which is
+     * called at most once per miss and never under a lock. Callers wait outside the cache.
+     */
+    public CompletableFuture<Optional<UserSummary>> getById(Long id,
+                                                            Function<Long, CompletableFuture<Optional<UserSummary>>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return getOrLoad(byId, id, loader).thenApply(Optional::ofNullable);
+    }
+
+    public Optional<UserSummary> getByEmail(String email, Function<String, Optional<UserSummary>> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+        CompletableFuture<UserSummary> user = getOrLoad(byEmail, email, key -> {
+            Optional<UserSummary> loaded = loader.apply(key);
+            loaded.ifPresent(found -> index(found.id(), key));
+            return CompletableFuture.completedFuture(loaded);
+        });
+        try {
+            return Optional.ofNullable(user.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Optional<UserSummary> previous = loaded(byId.asMap().remove(event.id()));
+        // A new id cannot have cached email entries yet; otherwise drop every email cached for it
+        if (event.type() != UserChangedEvent.Type.CREATED) {
+            Set<String> emails = emailsById.remove(event.id());
+            if (emails != null) {
+                emails.forEach(this::invalidateEmail);
+            }
+            previous.ifPresent(user -> invalidateEmail(user.email()));
+        }
+        if (event.user() != null) {
+            invalidateEmail(event.user().email());
+        }
+    }
+
+    private static <K> CompletableFuture<UserSummary> getOrLoad(AsyncCache<K, UserSummary> cache, K key,
+                                                               Function<K, CompletableFuture<Optional<UserSummary>>> loader) {
+        CompletableFuture<UserSummary> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<UserSummary> load = new CompletableFuture<>();
+        cached = cache.asMap().putIfAbsent(key, load);
+        if (cached != null) {
+            return cached;
+        }
+        // A null or failed result drops the entry again, so misses and errors are not cached
+        try {
+            loader.apply(key).whenComplete((user, error) -> {
+                if (error != null) {
+                    load.completeExceptionally(error);
+                } else {
+                    load.complete(user.orElse(null));
+                }
+            });
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+        }
+        return load;
+    }
+
+    private static Optional<UserSummary> loaded(CompletableFuture<UserSummary> entry) {
+        if (entry == null || !entry.isDone() || entry.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entry.join());
+    }
+
+    private void invalidateEmail(String email) {
+        loaded(byEmail.asMap().remove(email)).ifPresent(removed -> unindex(removed.id(), email));
+    }
+    // Sets are only mutated inside compute calls, which the map serializes per id
+    private void index(Long id, String email) {
+        emailsById.compute(id, (key, emails) -> {
+            Set<String> updated = emails != null ? emails : new HashSet<>();
+            updated.add(email);
+            return updated;
+        });
+    }
+
+    private void unindex(Long id, String email) {
+        emailsById.computeIfPresent(id, (key, emails) -> {
+            emails.remove(email);
+            return emails.isEmpty() ? null : emails;
+        });
+    }
+}
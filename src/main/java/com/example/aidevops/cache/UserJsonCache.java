@@ -0,0 +1,111 @@
+package com.example.aidevops.cache;
+
+import com.example.aidevops.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Ready-to-send UTF-8 JSON for single-user responses, keyed by user id. A hit
+ * skips both the repository and Jackson. The cache is bounded by total payload
+ * bytes and can keep payloads off-heap in direct buffers.
+ */
+@Component
+public class UserJsonCache {
+
+    public enum Storage {
+        HEAP, OFF_HEAP
+    }
+
+    /**
+     * A serialized user together with the ETag that describes it.
+     */
+    public static final class Entry {
+
+        private final String etag;
+        private final byte[] heap;
+        private final ByteBuffer direct;
+
+        private Entry(String etag, byte[] json, Storage storage) {
+            this.etag = etag;
+            if (storage == Storage.OFF_HEAP) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(json.length);
+                buffer.put(json).flip();
+                this.heap = null;
+                this.direct = buffer.asReadOnlyBuffer();
+            } else {
+                this.heap = json;
+                this.direct = null;
+            }
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        public int length() {
+            return heap != null ? heap.length : direct.capacity();
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            if (heap != null) {
+                out.write(heap);
+            } else {
+                Channels.newChannel(out).write(direct.duplicate());
+            }
+        }
+    }
+
+    private final boolean enabled;
+    private final Storage storage;
+    private final Cache<Long, Entry> entries;
+
+    public UserJsonCache(@Value("${app.users.json-cache.enabled:true}") boolean enabled,
+                         @Value("${app.users.json-cache.maximum-size:16MB}") DataSize maximumSize,
+                         @Value("${app.users.json-cache.storage:heap}") Storage storage,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.storage = storage;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Long id, Entry entry) -> entry.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "users.json");
+    }
+
+    /**
+     * Returns the cached payload for {@code id}, producing it with {@code loader} on a miss.
+     * Loaders build entries through {@link #newEntry} so the configured storage is used.
+     */
+    public Optional<Entry> get(Long id, Function<Long, Optional<Entry>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return Optional.ofNullable(entries.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public Entry newEntry(String etag, byte[] json) {
+        return new Entry(etag, json, storage);
+    }
+
+    // Runs after UserCache so a payload can never be rebuilt from a stale summary
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        entries.invalidate(event.id());
+    }
+}
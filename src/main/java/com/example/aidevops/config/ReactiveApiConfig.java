@@ -0,0 +1,78 @@
+package com.example.aidevops.config;
+
+import com.example.aidevops.controller.UserReactiveHandler;
+import com.example.aidevops.exception.ReactiveExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+
+import java.util.List;
+
+/**
+ * Mounts the reactive users API at /api/v2 inside the existing Tomcat, next to the
+ * MVC DispatcherServlet. Requests are handled with non-blocking servlet I/O, so a
+ * slow reader holds no thread while the user list streams to it.
+ */
+@Configuration
+public class ReactiveApiConfig {
+
+    private static final String SERVLET_MAPPING = "/api/v2/*";
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveUserRoutes(UserReactiveHandler handler,
+                                                             ReactiveExceptionHandler exceptionHandler) {
+        // Paths are relative to the servlet mapping
+        return RouterFunctions.route()
+                .GET("/users", handler::getAllUsers)
+                .GET("/users/{id}", handler::getUserById)
+                .POST("/users", handler::createUser)
+                .PUT("/users/{id}", handler::updateUser)
+                .DELETE("/users/{id}", handler::deleteUser)
+                .onError(Throwable.class, exceptionHandler::handle)
+                .build();
+    }
+
+    @Bean
+    public ServletRegistrationBean<ServletHttpHandlerAdapter> reactiveApiServlet(RouterFunction<ServerResponse> reactiveUserRoutes,
+                                                                                ObjectMapper objectMapper) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+
+        // Same policy as the /api/** mapping in WebConfig
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.addAllowedOrigin("*");
+        cors.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        cors.addAllowedHeader("*");
+        cors.setMaxAge(3600L);
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/**", cors);
+
+        HttpHandler httpHandler = WebHttpHandlerBuilder
+                .webHandler(RouterFunctions.toWebHandler(reactiveUserRoutes, strategies))
+                .filter(new CorsWebFilter(corsSource))
+                .build();
+        ServletRegistrationBean<ServletHttpHandlerAdapter> registration =
+                new ServletRegistrationBean<>(new ServletHttpHandlerAdapter(httpHandler), SERVLET_MAPPING);
+        registration.setName("reactiveApi");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
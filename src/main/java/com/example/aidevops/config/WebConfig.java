@@ -1,12 +1,40 @@
 package com.example.aidevops.config;
 
+import com.example.aidevops.json.UserJsonHttpMessageConverter;
+import com.example.aidevops.json.UserJsonWriter;
+import com.example.aidevops.protobuf.UserProtobufHttpMessageConverter;
+import com.example.aidevops.web.AssetCacheControlInterceptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.util.List;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private UserJsonWriter userJsonWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -15,4 +43,37 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .maxAge(3600);
     }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Content-hashed URLs (app-<md5>.js) resolve back to the file, with precompressed
+        // variants preferred; resolutions are cached so hashes are computed once per asset
+        registry.addResourceHandler("/**")
+                .addResourceLocations("classpath:/static/")
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AssetCacheControlInterceptor());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of the Jackson converter so user payloads take the hand-written path
+        converters.add(0, new UserJsonHttpMessageConverter(userJsonWriter, objectMapper));
+        // Spring MVC already registers CBOR and Smile converters for the Jackson modules on the classpath;
+        // give them Boot's ObjectMapper settings so dates and fields match the JSON output
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2CborHttpMessageConverter cbor) {
+                cbor.setObjectMapper(objectMapperBuilder.getObject().factory(new CBORFactory()).build());
+            } else if (converter instanceof MappingJackson2SmileHttpMessageConverter smile) {
+                smile.setObjectMapper(objectMapperBuilder.getObject().factory(new SmileFactory()).build());
+            }
+        }
+        // Binary formats are only chosen when asked for explicitly; JSON stays the default
+        converters.add(new UserProtobufHttpMessageConverter());
+    }
 }
\ No newline at end of file
@@ -1,13 +1,48 @@
 package com.example.aidevops.controller;
 
+import com.example.aidevops.web.CompressionFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @Controller
 public class HomeController {
     
+    @Autowired
+    private HomePageRenderer homePageRenderer;
+    
     @GetMapping("/")
-    public String index() {
-        return "index";
+    @ResponseBody
+    public ResponseEntity<?> index(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // The compression filter only covers /api; the page is gzipped once per render instead of per request
+        boolean gzip = CompressionFilter.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = homePageRenderer.currentETag();
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified(gzip ? CompressionFilter.gzipETag(etag) : etag)) {
+            return null;
+        }
+        
+        HomePageRenderer.Page page = homePageRenderer.render();
+        // The page itself revalidates; the fingerprinted assets it links to are immutable
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .cacheControl(CacheControl.noCache());
+        if (gzip) {
+            return ok.eTag(CompressionFilter.gzipETag(page.etag()))
+                     .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                     .body(page.gzip());
+        }
+        return ok.eTag(page.etag()).body(page.html());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.example.aidevops.controller;
+
+import com.example.aidevops.dto.UserCursor;
+import com.example.aidevops.dto.UserPage;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.json.UserJsonWriter;
+import com.example.aidevops.service.UserChangeTracker;
+import com.example.aidevops.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds the landing page: index.html with fingerprinted asset links and, in SSR
+ * mode, the first page of users embedded as JSON so app.js can render without a
+ * round trip. The embedded change version lets the client follow the change feed
+ * from exactly that point. The rendered page, and its gzip form, are reused until
+ * the next committed user change.
+ */
+@Component
+public class HomePageRenderer {
+
+    private static final Pattern ASSET_LINK = Pattern.compile("(src|href)=\"(/[^\"]+\\.(?:js|css))\"");
+
+    private static final String INITIAL_USERS_MARKER = "<!-- initial-users -->";
+
+    public record Page(String etag, String html, byte[] gzip) {
+    }
+
+    private final UserService userService;
+    private final UserJsonWriter userJsonWriter;
+    private final UserChangeTracker changeTracker;
+    private final ResourceUrlProvider resourceUrlProvider;
+    private final boolean ssrEnabled;
+    private final int pageSize;
+    private final int compressionLevel;
+    private volatile String template;
+    private volatile Page cached;
+
+    public HomePageRenderer(UserService userService, UserJsonWriter userJsonWriter,
+                            UserChangeTracker changeTracker, ResourceUrlProvider resourceUrlProvider,
+                            @Value("${app.home.ssr.enabled:true}") boolean ssrEnabled,
+                            @Value("${app.home.ssr.page-size:50}") int pageSize,
+                            @Value("${app.compression.level:6}") int compressionLevel) {
+        this.userService = userService;
+        this.userJsonWriter = userJsonWriter;
+        this.changeTracker = changeTracker;
+        this.resourceUrlProvider = resourceUrlProvider;
+        this.ssrEnabled = ssrEnabled;
+        this.pageSize = Math.min(Math.max(pageSize, 1), UserService.MAX_PAGE_SIZE);
+        this.compressionLevel = compressionLevel;
+    }
+
+    public String currentETag() {
+        return UserETags.forHomePage(changeTracker.currentTag());
+    }
+
+    public Page render() throws IOException {
+        // Read the tag before the data: a change that lands mid-render leaves a stale tag, never stale data under a fresh one
+        String version = changeTracker.currentTag();
+        String etag = UserETags.forHomePage(version);
+        Page page = cached;
+        if (page != null && page.etag().equals(etag)) {
+            return page;
+        }
+        String html = template();
+        html = html.replace(INITIAL_USERS_MARKER, ssrEnabled ? initialUsersScript(version) : "");
+        page = new Page(etag, html, gzip(html));
+        cached = page;
+        return page;
+    }
+
+    private String initialUsersScript(String version) throws IOException {
+        UserPage<UserSummary> first = userService.getUsersPage(UserCursor.first(UserCursor.Sort.ID), pageSize);
+        ByteArrayOutputStream json = new ByteArrayOutputStream(256 * first.items().size() + 64);
+        try (JsonGenerator generator = userJsonWriter.createGenerator(json)) {
+            userJsonWriter.write(generator, first);
+        }
+        // "<" only occurs inside JSON strings, so escaping it keeps the JSON valid and "</script>" out of the page
+        String data = json.toString(StandardCharsets.UTF_8).replace("<", "\\u003c");
+        return "<script id=\"initial-users\" type=\"application/json\" data-version=\"" + version + "\">"
+                + data + "</script>";
+    }
+
+    private byte[] gzip(String html) throws IOException {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(compressionLevel);
+            }
+        }) {
+            gzip.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private String template() throws IOException {
+        String html = template;
+        if (html == null) {
+            html = linkAssets(new ClassPathResource("static/index.html").getContentAsString(StandardCharsets.UTF_8));
+            template = html;
+        }
+        return html;
+    }
+
+    private String linkAssets(String html) {
+        Matcher matcher = ASSET_LINK.matcher(html);
+        StringBuilder linked = new StringBuilder(html.length());
+        while (matcher.find()) {
+            String url = resourceUrlProvider.getForLookupPath(matcher.group(2));
+            String replacement = matcher.group(1) + "=\"" + (url != null ? url : matcher.group(2)) + "\"";
+            matcher.appendReplacement(linked, Matcher.quoteReplacement(replacement));
+        }
+        return matcher.appendTail(linked).toString();
+    }
+}
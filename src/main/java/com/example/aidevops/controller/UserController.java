@@ -1,12 +1,38 @@
 package com.example.aidevops.controller;
 
+import com.example.aidevops.cache.UserJsonCache;
+import com.example.aidevops.dto.UserBatchResult;
+import com.example.aidevops.dto.UserChanges;
+import com.example.aidevops.dto.UserCursor;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.event.UserChangeStream;
+import com.example.aidevops.exception.BadRequestException;
+import com.example.aidevops.exception.DuplicateEmailException;
+import com.example.aidevops.exception.VersionConflictException;
+import com.example.aidevops.json.UserJsonWriter;
 import com.example.aidevops.model.User;
+import com.example.aidevops.service.UserChangeTracker;
 import com.example.aidevops.service.UserService;
+import com.example.aidevops.web.WorkloadExecutors;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,35 +44,167 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserChangeTracker changeTracker;
+    
+    @Autowired
+    private UserChangeStream userChangeStream;
+    
+    @Autowired
+    private UserJsonCache userJsonCache;
+    
+    @Autowired
+    private UserJsonWriter userJsonWriter;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private WorkloadExecutors workloads;
+    
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public Object getAllUsers(@RequestParam(required = false) Long after,
+                              @RequestParam(required = false) String cursor,
+                              @RequestParam(required = false) Integer limit,
+                              @RequestParam(required = false) String sort,
+                              @RequestParam(required = false) List<Long> ids,
+                              HttpServletRequest request,
+                              WebRequest webRequest) {
+        if (after != null && sort != null && UserCursor.Sort.from(sort) != UserCursor.Sort.ID) {
+            // An id alone cannot position a name or createdAt ordering; those pages are reached through cursors
+            throw new BadRequestException("'after' only supports sort=id; use 'cursor' to page by " + sort);
+        }
+        // Validated against the change counter before any query runs or any JSON is written. A 304 is answered
+        // right here, so revalidation never waits for, or is refused by, the request pool
+        String etag = UserETags.forRepresentation(UserETags.forCollection(changeTracker.currentTag(), request.getQueryString()),
+                request.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return workloads.<ResponseEntity<?>>submit(request, () -> {
+            if (ids != null) {
+                return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(userService.getUsersByIds(ids));
+            }
+            if (after == null && cursor == null && limit == null && sort == null) {
+                List<UserSummary> users = userService.getAllUsers();
+                return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(users);
+            }
+        
+            UserCursor position;
+            if (cursor != null) {
+                position = UserCursor.decode(cursor);
+            } else if (after != null) {
+                position = UserCursor.afterId(after);
+            } else {
+                position = UserCursor.first(UserCursor.Sort.from(sort));
+            }
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(userService.getUsersPage(position, limit));
+        });
+    }
+    
+    @GetMapping("/changes")
+    public UserChanges getChanges(@RequestParam(required = false) String since) {
+        // Without a starting point the client only learns the current version and must load the list
+        return changeTracker.changesSince(since);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(required = false) String since) {
+        // A reconnecting EventSource resumes from the last event it saw
+        return userChangeStream.subscribe(lastEventId != null ? lastEventId : since);
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = userService::exportUsers;
+        return ResponseEntity.ok()
+                             .contentType(MediaType.APPLICATION_NDJSON)
+                             .body(body);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        Optional<User> user = userService.getUserById(id);
-        return user.map(ResponseEntity::ok)
-                  .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> getUserById(@PathVariable Long id, HttpServletRequest request,
+                                         HttpServletResponse response) throws IOException {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (!UserETags.prefersJson(accept)) {
+            // Binary formats go through content negotiation; the user cache still avoids the query
+            Optional<UserSummary> user = userService.getUserById(id);
+            return user.map(u -> ResponseEntity.ok()
+                                               .eTag(UserETags.forRepresentation(UserETags.forUser(u), accept))
+                                               .varyBy(HttpHeaders.ACCEPT)
+                                               .body(u))
+                      .orElse(ResponseEntity.notFound().build());
+        }
+        
+        // Hits are pre-serialized bytes: no query, no Jackson, and a matching If-None-Match yields 304
+        Optional<UserJsonCache.Entry> json = userJsonCache.get(id, key -> userService.getUserById(key)
+                .map(user -> userJsonCache.newEntry(UserETags.forUser(user), userJsonWriter.toBytes(user))));
+        if (json.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        UserJsonCache.Entry entry = json.get();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (new ServletWebRequest(request, response).checkNotModified(entry.etag())) {
+            return null;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(entry.length());
+        entry.writeTo(response.getOutputStream());
+        return null;
     }
     
     @PostMapping
-    public ResponseEntity<?> createUser(@Valid @RequestBody User user) {
+    public ResponseEntity<?> createUser(@Valid @RequestBody User user,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
             User createdUser = userService.createUser(user);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                                 .eTag(UserETags.forRepresentation(UserETags.forUser(createdUser), accept))
+                                 .body(createdUser);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                                .body("Error: " + e.getMessage());
         }
     }
     
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public WebAsyncTask<ResponseEntity<List<UserBatchResult>>> createUsers(@RequestBody List<User> users,
+                                                                          HttpServletRequest request) {
+        return workloads.submit(request, () -> ResponseEntity.ok(userService.createUsers(users)));
+    }
+    
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<ResponseEntity<List<UserBatchResult>>> createUsersFromNdjson(InputStream body,
+                                                                                     HttpServletRequest request) {
+        // Parsing the body is part of the bulk work, so it happens on the bulk pool too
+        return workloads.submit(request, () -> {
+            List<User> users;
+            try (MappingIterator<User> entries = objectMapper.readerFor(User.class).readValues(body)) {
+                users = entries.readAll();
+            } catch (JsonProcessingException e) {
+                throw new BadRequestException("Malformed NDJSON body: " + e.getOriginalMessage());
+            }
+            return ResponseEntity.ok(userService.createUsers(users));
+        });
+    }
+    
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateUser(@PathVariable Long id, @Valid @RequestBody User userDetails) {
+    public ResponseEntity<?> updateUser(@PathVariable Long id, @Valid @RequestBody User userDetails,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            User updatedUser = userService.updateUser(id, userDetails);
-            return ResponseEntity.ok(updatedUser);
+            User updatedUser = userService.updateUser(id, userDetails, UserETags.versionFromIfMatch(ifMatch, id));
+            return ResponseEntity.ok()
+                                 .eTag(UserETags.forRepresentation(UserETags.forUser(updatedUser), accept))
+                                 .body(updatedUser);
+        } catch (DuplicateEmailException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                               .body("Error: " + e.getMessage());
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                               .body("Error: " + e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,116 @@
+package com.example.aidevops.controller;
+
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.model.User;
+import com.example.aidevops.protobuf.UserProtobufHttpMessageConverter;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strong entity tags for the users API. Single users are tagged with their
+ * {@code @Version}; collections with the table change counter plus the query.
+ * A strong tag names one representation, so binary formats add a suffix to the
+ * JSON tag the same way the compression filter adds {@code -gzip}.
+ */
+final class UserETags {
+
+    // In converter order, which is how content negotiation breaks ties
+    private static final Map<MediaType, String> FORMATS = new LinkedHashMap<>();
+
+    static {
+        FORMATS.put(MediaType.APPLICATION_JSON, "");
+        FORMATS.put(MediaType.APPLICATION_CBOR, "-cbor");
+        FORMATS.put(new MediaType("application", "x-jackson-smile"), "-smile");
+        FORMATS.put(UserProtobufHttpMessageConverter.APPLICATION_PROTOBUF, "-protobuf");
+    }
+
+    private UserETags() {
+    }
+
+    /**
+     * Tags the representation content negotiation picks for {@code accept}.
+     */
+    static String forRepresentation(String etag, String accept) {
+        String suffix = FORMATS.get(negotiate(accept));
+        return suffix.isEmpty() ? etag : etag.substring(0, etag.length() - 1) + suffix + "\"";
+    }
+
+    static boolean prefersJson(String accept) {
+        return MediaType.APPLICATION_JSON.equals(negotiate(accept));
+    }
+
+    private static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        acceptable = acceptable.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .toList();
+        for (MediaType candidate : acceptable) {
+            for (MediaType format : FORMATS.keySet()) {
+                if (candidate.getQualityValue() > 0 && candidate.isCompatibleWith(format)) {
+                    return format;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    static String forUser(UserSummary user) {
+        return "\"" + user.id() + "-" + user.version() + "\"";
+    }
+
+    static String forUser(User user) {
+        return "\"" + user.getId() + "-" + user.getVersion() + "\"";
+    }
+
+    static String forCollection(String changeTag, String query) {
+        String suffix = query == null ? "" : "-" + Integer.toHexString(query.hashCode());
+        return "\"users-" + changeTag + suffix + "\"";
+    }
+
+    static String forHomePage(String changeTag) {
+        return "\"home-" + changeTag + "\"";
+    }
+
+    /**
+     * Extracts the version from an If-Match header for the given user. Returns null
+     * when the header is absent or {@code *}, and -1 for a tag that can never match.
+     */
+    static Long versionFromIfMatch(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        for (String suffix : FORMATS.values()) {
+            if (!suffix.isEmpty() && tag.endsWith(suffix)) {
+                tag = tag.substring(0, tag.length() - suffix.length());
+                break;
+            }
+        }
+        String prefix = id + "-";
+        if (!tag.startsWith(prefix)) {
+            return -1L;
+        }
+        try {
+            return Long.valueOf(tag.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.aidevops.controller;
+
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.event.UserChangedEvent;
+import com.example.aidevops.exception.BadRequestException;
+import com.example.aidevops.exception.DuplicateEmailException;
+import com.example.aidevops.exception.VersionConflictException;
+import com.example.aidevops.model.User;
+import com.example.aidevops.repository.ReactiveUserRepository;
+import com.example.aidevops.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Handlers for the reactive /api/v2/users routes. Responses match the MVC
+ * UserController: same ETags, status codes and validation errors. Writes go
+ * through R2DBC, so the Hibernate caches are evicted here and the usual
+ * {@link UserChangedEvent} is published for the in-memory caches and the change feed.
+ */
+@Component
+public class UserReactiveHandler {
+
+    private static final String[] USERS_QUERY_SPACE = {"users"};
+
+    private final ReactiveUserRepository userRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public UserReactiveHandler(ReactiveUserRepository userRepository, Validator validator,
+                               ApplicationEventPublisher eventPublisher, EntityManagerFactory entityManagerFactory) {
+        this.userRepository = userRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Streams users in id order as a JSON array, or as NDJSON when asked for. Rows are
+     * read from the database only as fast as the client consumes them.
+     */
+    public Mono<ServerResponse> getAllUsers(ServerRequest request) {
+        return Mono.defer(() -> {
+            Long after = request.queryParam("after").map(value -> parseLong("after", value)).orElse(null);
+            Integer limit = request.queryParam("limit")
+                    .map(value -> (int) Math.max(1, Math.min(parseLong("limit", value), UserService.MAX_PAGE_SIZE)))
+                    .orElse(null);
+            MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                    ? MediaType.APPLICATION_NDJSON
+                    : MediaType.APPLICATION_JSON;
+            return ServerResponse.ok()
+                    .contentType(contentType)
+                    .body(userRepository.findAll(after, limit), UserSummary.class);
+        });
+    }
+
+    public Mono<ServerResponse> getUserById(ServerRequest request) {
+        return pathId(request)
+                .flatMap(userRepository::findById)
+                .flatMap(user -> {
+                    String etag = UserETags.forRepresentation(UserETags.forUser(user),
+                            request.headers().firstHeader(HttpHeaders.ACCEPT));
+                    return request.checkNotModified(etag)
+                            .switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(etag).bodyValue(user)));
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    public Mono<ServerResponse> createUser(ServerRequest request) {
+        return validBody(request, user -> userRepository.insert(user.getName(), user.getEmail())
+                .onErrorMap(e -> e instanceof DataIntegrityViolationException violation
+                        && DuplicateEmailException.isCausedBy(violation), e -> new DuplicateEmailException(user.getEmail(), e))
+                .doOnNext(created -> {
+                    invalidateUserQueries();
+                    eventPublisher.publishEvent(UserChangedEvent.created(created));
+                })
+                .flatMap(created -> ServerResponse.status(HttpStatus.CREATED)
+                        .eTag(UserETags.forRepresentation(UserETags.forUser(created),
+                                request.headers().firstHeader(HttpHeaders.ACCEPT)))
+                        .bodyValue(created))
+                .onErrorResume(DuplicateEmailException.class, e -> conflict(HttpStatus.CONFLICT, e)));
+    }
+
+    public Mono<ServerResponse> updateUser(ServerRequest request) {
+        return pathId(request).flatMap(id -> {
+            Long expectedVersion = UserETags.versionFromIfMatch(request.headers().firstHeader(HttpHeaders.IF_MATCH), id);
+            return validBody(request, details -> userRepository.update(id, details.getName(), details.getEmail(), expectedVersion)
+                    .onErrorMap(e -> e instanceof DataIntegrityViolationException violation
+                            && DuplicateEmailException.isCausedBy(violation), e -> new DuplicateEmailException(details.getEmail(), e))
+                    .switchIfEmpty(Mono.defer(() -> expectedVersion == null
+                            ? Mono.empty()
+                            : userRepository.existsById(id).flatMap(exists -> exists
+                                    ? Mono.error(new VersionConflictException(id, expectedVersion))
+                                    : Mono.empty())))
+                    .doOnNext(updated -> {
+                        evictSecondLevelCache(id);
+                        eventPublisher.publishEvent(UserChangedEvent.updated(updated));
+                    })
+                    .flatMap(updated -> ServerResponse.ok()
+                            .eTag(UserETags.forRepresentation(UserETags.forUser(updated),
+                                    request.headers().firstHeader(HttpHeaders.ACCEPT)))
+                            .bodyValue(updated))
+                    .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()))
+                    .onErrorResume(DuplicateEmailException.class, e -> conflict(HttpStatus.CONFLICT, e))
+                    .onErrorResume(VersionConflictException.class, e -> conflict(HttpStatus.PRECONDITION_FAILED, e)));
+        });
+    }
+
+    public Mono<ServerResponse> deleteUser(ServerRequest request) {
+        return pathId(request).flatMap(id -> userRepository.deleteById(id)
+                .flatMap(deleted -> {
+                    if (!deleted) {
+                        return ServerResponse.notFound().build();
+                    }
+                    evictSecondLevelCache(id);
+                    eventPublisher.publishEvent(UserChangedEvent.deleted(id));
+                    return ServerResponse.ok().build();
+                }));
+    }
+
+    private Mono<ServerResponse> validBody(ServerRequest request,
+                                           Function<User, Mono<ServerResponse>> action) {
+        return request.bodyToMono(User.class)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .flatMap(user -> {
+                    Set<ConstraintViolation<User>> violations = validator.validate(user);
+                    if (violations.isEmpty()) {
+                        return action.apply(user);
+                    }
+                    Map<String, String> errors = new TreeMap<>();
+                    violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+                    return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(errors);
+                });
+    }
+
+    private static Mono<ServerResponse> conflict(HttpStatus status, RuntimeException e) {
+        return ServerResponse.status(status).contentType(MediaType.TEXT_PLAIN).bodyValue("Error: " + e.getMessage());
+    }
+
+    private static Mono<Long> pathId(ServerRequest request) {
+        // Parsed inside the pipeline so a bad id reaches the error handler as a 400
+        return Mono.fromCallable(() -> parseLong("id", request.pathVariable("id")));
+    }
+
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid value for parameter '" + name + "'", e);
+        }
+    }
+
+    private void evictSecondLevelCache(Long id) {
+        // R2DBC writes bypass Hibernate, so the entity and the cached queries over the users table are dropped here
+        entityManagerFactory.getCache().evict(User.class, id);
+        invalidateUserQueries();
+    }
+
+    private void invalidateUserQueries() {
+        // Only the users query space: cached queries over other tables keep their results
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        try (SessionImplementor session = sessionFactory.openSession()) {
+            sessionFactory.getCache().getTimestampsCache().invalidate(USERS_QUERY_SPACE, session);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.aidevops.dto;
+
+/**
+ * Outcome of one entry in a bulk create request. {@code status} uses the HTTP
+ * status the entry would have received from the single-user endpoint.
+ */
+public record UserBatchResult(int index, int status, Long id, String error) {
+
+    public static UserBatchResult created(int index, Long id) {
+        return new UserBatchResult(index, 201, id, null);
+    }
+
+    public static UserBatchResult failed(int index, int status, String error) {
+        return new UserBatchResult(index, status, null, error);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.aidevops.dto;
+
+import java.util.List;
+
+/**
+ * Response of the users change feed. {@code version} is the token to pass as
+ * {@code since} next time. When {@code resync} is true the requested version is
+ * no longer covered by the change log and the client must reload the list.
+ */
+public record UserChanges(String version, boolean resync, List<UserSummary> upserts, List<Long> deletes) {
+
+    public static UserChanges resync(String version) {
+        return new UserChanges(version, true, List.of(), List.of());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.aidevops.dto;
+
+import com.example.aidevops.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in the user listing. A cursor carries the sort key,
+ * the paging direction and the last seen (value, id) pair so the next page
+ * can be fetched with a seek predicate instead of an OFFSET.
+ */
+public record UserCursor(Sort sort, Direction direction, Long id, String value) {
+
+    public enum Sort {
+        ID, NAME, CREATED_AT;
+
+        public static Sort from(String name) {
+            if (name == null || name.isBlank() || name.equalsIgnoreCase("id")) {
+                return ID;
+            }
+            if (name.equalsIgnoreCase("name")) {
+                return NAME;
+            }
+            if (name.equalsIgnoreCase("createdAt")) {
+                return CREATED_AT;
+            }
+            throw new BadRequestException("Unsupported sort: " + name);
+        }
+    }
+
+    public enum Direction {
+        NEXT, PREV
+    }
+
+    public static UserCursor first(Sort sort) {
+        return new UserCursor(sort, Direction.NEXT, null, null);
+    }
+
+    public static UserCursor afterId(Long id) {
+        return new UserCursor(Sort.ID, Direction.NEXT, id, null);
+    }
+
+    public boolean isFirstPage() {
+        return id == null;
+    }
+
+    public LocalDateTime createdAtValue() {
+        return LocalDateTime.parse(value);
+    }
+
+    public String encode() {
+        String raw = sort.name() + "|" + direction.name() + "|" + id + "|" + (value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            UserCursor cursor = new UserCursor(Sort.valueOf(parts[0]), Direction.valueOf(parts[1]),
+                    Long.valueOf(parts[2]), parts[3]);
+            if (cursor.sort() == Sort.CREATED_AT) {
+                cursor.createdAtValue();
+            }
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.aidevops.dto;
+
+import java.util.List;
+
+/**
+ * Response envelope for cursor-paginated user listings.
+ */
+public record UserPage<T>(List<T> items, String nextCursor, String prevCursor) {
+}
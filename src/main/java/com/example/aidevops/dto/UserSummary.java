@@ -0,0 +1,15 @@
+package com.example.aidevops.dto;
+
+import com.example.aidevops.model.User;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a user, loaded as a JPQL constructor projection so that
+ * listings skip entity hydration and dirty-check snapshots.
+ */
+public record UserSummary(Long id, String name, String email, LocalDateTime createdAt, Long version) {
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getName(), user.getEmail(), user.getCreatedAt(), user.getVersion());
+    }
+}
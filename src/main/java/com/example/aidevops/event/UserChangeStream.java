@@ -0,0 +1,281 @@
+package com.example.aidevops.event;
+
+import com.example.aidevops.dto.UserChanges;
+import com.example.aidevops.service.UserChangeTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed user changes to Server-Sent Events subscribers. Each commit is
+ * turned into one change-feed delta that is shared by all subscribers; every
+ * subscriber has its own bounded buffer, drained on a small pool of platform sender
+ * threads a few frames per turn, so a slow client never blocks the committing thread
+ * and cannot hold a sender while others wait. Sends stay off virtual threads because
+ * the emitter's monitor would pin their carriers for as long as a write blocks. When a
+ * buffer overflows the subscriber is told to resync, or is disconnected and catches up
+ * from its Last-Event-ID when it reconnects. A subscriber whose write stays blocked
+ * past the write timeout is dropped the same way.
+ */
+@Component
+public class UserChangeStream {
+
+    public enum OverflowPolicy {
+        RESYNC, DISCONNECT
+    }
+
+    private static final String CHANGES_EVENT = "changes";
+
+    private static final int FRAMES_PER_TURN = 16;
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final UserChangeTracker changeTracker;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long writeTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final DistributionSummary lag;
+    private final Counter overflows;
+    private final Counter writeTimeouts;
+    private String lastVersion;
+
+    public UserChangeStream(UserChangeTracker changeTracker,
+                            @Value("${app.users.stream.buffer-size:256}") int bufferSize,
+                            @Value("${app.users.stream.timeout:30m}") Duration timeout,
+                            @Value("${app.users.stream.heartbeat:15s}") Duration heartbeat,
+                            @Value("${app.users.stream.overflow:resync}") OverflowPolicy overflowPolicy,
+                            @Value("${app.users.stream.sender-threads:4}") int senderThreads,
+                            @Value("${app.users.stream.write-timeout:10s}") Duration writeTimeout,
+                            MeterRegistry meterRegistry) {
+        this.changeTracker = changeTracker;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.overflowPolicy = overflowPolicy;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.lastVersion = changeTracker.currentTag();
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "user-stream-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+        this.heartbeats.scheduleAtFixedRate(this::dropStalledSubscribers, writeTimeout.toMillis(), writeTimeout.toMillis(),
+                TimeUnit.MILLISECONDS);
+        Gauge.builder("users.stream.subscribers", subscribers, Set::size)
+                .description("Open Server-Sent Events subscriptions")
+                .register(meterRegistry);
+        Gauge.builder("users.stream.lag.max", subscribers, subs -> subs.stream().mapToInt(Subscriber::lag).max().orElse(0))
+                .description("Largest number of undelivered events buffered for one subscriber")
+                .register(meterRegistry);
+        this.lag = DistributionSummary.builder("users.stream.lag")
+                .description("Events still buffered for a subscriber when one is delivered")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("users.stream.overflows")
+                .tag("policy", overflowPolicy.name().toLowerCase())
+                .register(meterRegistry);
+        this.writeTimeouts = Counter.builder("users.stream.write.timeouts")
+                .description("Subscribers dropped because a write stayed blocked past the write timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription that starts after {@code since} (normally the
+     * Last-Event-ID). Without a starting point the first event only carries the
+     * current version.
+     */
+    public synchronized SseEmitter subscribe(String since) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Registered and caught up under the same lock as publish(), so no change is missed or reordered
+        UserChanges initial = since != null
+                ? changeTracker.changesSince(since)
+                : new UserChanges(changeTracker.currentTag(), false, List.of(), List.of());
+        subscriber.offer(changesEvent(initial));
+        return emitter;
+    }
+
+    @Order(3)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void publish(UserChangedEvent event) {
+        // Runs after UserChangeTracker has logged the change; concurrent commits are folded into one delta
+        UserChanges changes = changeTracker.changesSince(lastVersion);
+        if (changes.version().equals(lastVersion)) {
+            return;
+        }
+        lastVersion = changes.version();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = changesEvent(changes);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.stalled(now)) {
+                writeTimeouts.increment();
+                subscriber.close();
+            }
+        }
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> changesEvent(UserChanges changes) {
+        // Built once and shared by every subscriber's buffer
+        return SseEmitter.event()
+                .id(changes.version())
+                .name(CHANGES_EVENT)
+                .data(changes, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile long sendStarted;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        int lag() {
+            return buffer.size();
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (!buffer.offer(frame)) {
+                overflows.increment();
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    close();
+                    return;
+                }
+                // Everything buffered is superseded by a reload of the list
+                buffer.clear();
+                buffer.offer(changesEvent(UserChanges.resync(changeTracker.currentTag())));
+            }
+            drain();
+        }
+
+        boolean stalled(long now) {
+            long started = sendStarted;
+            return started != 0 && now - started > writeTimeoutNanos;
+        }
+
+        void heartbeat() {
+            if (buffer.isEmpty() && buffer.offer(HEARTBEAT)) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::sendTurn);
+            } catch (RejectedExecutionException ex) {
+                draining.set(false);
+            }
+        }
+
+        private void sendTurn() {
+            try {
+                if (closed) {
+                    // Completed by a sender, never by the timer or a publisher: complete() waits for the
+                    // emitter's monitor, which a blocked send holds
+                    if (completed.compareAndSet(false, true)) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                for (int sent = 0; sent < FRAMES_PER_TURN && !closed && (frame = buffer.poll()) != null; sent++) {
+                    lag.record(buffer.size());
+                    sendStarted = System.nanoTime();
+                    emitter.send(frame);
+                    sendStarted = 0;
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away; the container completes the emitter and fires onError
+                subscribers.remove(this);
+                completed.set(true);
+            } finally {
+                sendStarted = 0;
+                draining.set(false);
+            }
+            // Re-queued behind other subscribers rather than looping, so one busy client cannot hog a sender
+            if (closed ? !completed.get() : !buffer.isEmpty() && subscribers.contains(this)) {
+                drain();
+            }
+        }
+
+        private void close() {
+            subscribers.remove(this);
+            closed = true;
+            buffer.clear();
+            drain();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.aidevops.event;
+
+import com.example.aidevops.dto.UserSummary;
+
+/**
+ * Published by UserService after a user is created, updated or deleted.
+ * {@code user} is the new state of the row and is null for deletions.
+ */
+public record UserChangedEvent(Type type, Long id, UserSummary user) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static UserChangedEvent created(UserSummary user) {
+        return new UserChangedEvent(Type.CREATED, user.id(), user);
+    }
+
+    public static UserChangedEvent updated(UserSummary user) {
+        return new UserChangedEvent(Type.UPDATED, user.id(), user);
+    }
+
+    public static UserChangedEvent deleted(Long id) {
+        return new UserChangedEvent(Type.DELETED, id, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.aidevops.exception;
+
+/**
+ * Invalid client input such as a malformed cursor or an out-of-range parameter.
+ * Mapped to 400; unlike a bare IllegalArgumentException its message is meant for the client.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.aidevops.exception;
+
+import com.example.aidevops.model.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Locale;
+
+public class DuplicateEmailException extends RuntimeException {
+
+    public DuplicateEmailException(String email, Throwable cause) {
+        super("User with email " + email + " already exists", cause);
+    }
+
+    /**
+     * Whether {@code e} is a violation of the unique email constraint. Ids are generated,
+     * so a duplicate key can only be the email; any other integrity failure is not a conflict.
+     */
+    public static boolean isCausedBy(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable t = e.getCause(); t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+}
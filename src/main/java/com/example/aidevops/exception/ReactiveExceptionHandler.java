@@ -0,0 +1,44 @@
+package com.example.aidevops.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Error responses for the reactive routes, mirroring {@link GlobalExceptionHandler}.
+ */
+@Component
+public class ReactiveExceptionHandler {
+
+    public Mono<ServerResponse> handle(Throwable ex, ServerRequest request) {
+        Map<String, String> error = new HashMap<>();
+        HttpStatus status;
+        if (ex instanceof ServerWebInputException inputException) {
+            // Malformed JSON, bad path variables and the like
+            error.put("error", inputException.getReason());
+            status = HttpStatus.BAD_REQUEST;
+        } else if (ex instanceof BadRequestException) {
+            error.put("error", ex.getMessage());
+            status = HttpStatus.BAD_REQUEST;
+        } else if (ex instanceof ResponseStatusException statusException) {
+            error.put("error", statusException.getReason());
+            status = HttpStatus.valueOf(statusException.getStatusCode().value());
+        } else if (ex instanceof RuntimeException) {
+            error.put("error", ex.getMessage());
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+        } else {
+            error.put("error", "An unexpected error occurred");
+            error.put("details", ex.getMessage());
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(error);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.aidevops.exception;
+
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(Long id, Long expectedVersion) {
+        super("User " + id + " is no longer at version " + expectedVersion);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.aidevops.json;
+
+import com.example.aidevops.dto.UserPage;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Write-only JSON converter for users API payloads, backed by {@link UserJsonWriter}.
+ * Collections declared with a non-user element type are left to the Jackson converter.
+ * Ones whose element type is unknown (wildcard handler return types) are claimed; if
+ * they turn out not to hold users they are written by the ObjectMapper, exactly as the
+ * default converter would.
+ */
+public class UserJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final UserJsonWriter writer;
+    private final ObjectMapper objectMapper;
+
+    public UserJsonHttpMessageConverter(UserJsonWriter writer, ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return UserSummary.class == clazz || User.class == clazz || UserPage.class == clazz
+                || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!super.canWrite(type, clazz, mediaType)) {
+            return false;
+        }
+        if (type == null) {
+            return true;
+        }
+        ResolvableType declared = ResolvableType.forType(type);
+        if (UserPage.class == clazz) {
+            return mayHoldUsers(declared.as(UserPage.class).getGeneric(0));
+        }
+        if (Collection.class.isAssignableFrom(clazz)) {
+            return mayHoldUsers(declared.asCollection().getGeneric(0));
+        }
+        return true;
+    }
+
+    private static boolean mayHoldUsers(ResolvableType element) {
+        Class<?> elementClass = element.resolve();
+        return elementClass == null || elementClass == Object.class
+                || UserSummary.class.isAssignableFrom(elementClass) || User.class.isAssignableFrom(elementClass);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        try (JsonGenerator generator = writer.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()))) {
+            if (value instanceof UserSummary user) {
+                writer.write(generator, user);
+            } else if (value instanceof User user) {
+                writer.write(generator, user);
+            } else if (value instanceof UserPage<?> page && UserJsonWriter.isUserCollection(page.items())) {
+                writer.write(generator, page);
+            } else if (value instanceof Collection<?> users && UserJsonWriter.isUserCollection(users)) {
+                writer.writeAll(generator, users);
+            } else {
+                objectMapper.writeValue(generator, value);
+            }
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Read not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Read not supported", inputMessage);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.aidevops.json;
+
+import com.example.aidevops.dto.UserPage;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.model.User;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+
+/**
+ * Streaming JSON writer for users that bypasses Jackson's reflective bean
+ * serialization. Field names are pre-encoded and createdAt is formatted without
+ * a DateTimeFormatter. Output is byte-for-byte what the application ObjectMapper
+ * produces for the same values.
+ */
+@Component
+public class UserJsonWriter {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString NEXT_CURSOR = new SerializedString("nextCursor");
+    private static final SerializedString PREV_CURSOR = new SerializedString("prevCursor");
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final int DATE_TIME_LENGTH = 29;
+
+    private final ObjectMapper objectMapper;
+
+    public UserJsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    public byte[] toBytes(UserSummary user) {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(256)) {
+            try (JsonGenerator generator = createGenerator(buffer)) {
+                write(generator, user);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(JsonGenerator generator, UserSummary user) throws IOException {
+        write(generator, user, new char[DATE_TIME_LENGTH]);
+    }
+
+    public void write(JsonGenerator generator, User user) throws IOException {
+        write(generator, user, new char[DATE_TIME_LENGTH]);
+    }
+
+    private void write(JsonGenerator generator, UserSummary user, char[] dateBuffer) throws IOException {
+        writeFields(generator, user.id(), user.name(), user.email(), user.createdAt(), user.version(), dateBuffer);
+    }
+
+    private void write(JsonGenerator generator, User user, char[] dateBuffer) throws IOException {
+        writeFields(generator, user.getId(), user.getName(), user.getEmail(), user.getCreatedAt(), user.getVersion(),
+                dateBuffer);
+    }
+
+    /**
+     * Writes a collection whose elements are all {@link UserSummary} or {@link User}.
+     */
+    public void writeAll(JsonGenerator generator, Collection<?> users) throws IOException {
+        // One date buffer for the whole collection keeps allocation flat in the number of users
+        char[] dateBuffer = new char[DATE_TIME_LENGTH];
+        generator.writeStartArray();
+        for (Object user : users) {
+            if (user instanceof UserSummary summary) {
+                write(generator, summary, dateBuffer);
+            } else {
+                write(generator, (User) user, dateBuffer);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    public void write(JsonGenerator generator, UserPage<?> page) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ITEMS);
+        writeAll(generator, page.items());
+        generator.writeFieldName(NEXT_CURSOR);
+        writeNullableString(generator, page.nextCursor());
+        generator.writeFieldName(PREV_CURSOR);
+        writeNullableString(generator, page.prevCursor());
+        generator.writeEndObject();
+    }
+
+    public static boolean isUserCollection(Collection<?> values) {
+        for (Object value : values) {
+            if (!(value instanceof UserSummary) && !(value instanceof User)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeFields(JsonGenerator generator, Long id, String name, String email,
+                             LocalDateTime createdAt, Long version, char[] dateBuffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        writeNullableNumber(generator, id);
+        generator.writeFieldName(NAME);
+        writeNullableString(generator, name);
+        generator.writeFieldName(EMAIL);
+        writeNullableString(generator, email);
+        generator.writeFieldName(CREATED_AT);
+        writeDateTime(generator, createdAt, dateBuffer);
+        generator.writeFieldName(VERSION);
+        writeNullableNumber(generator, version);
+        generator.writeEndObject();
+    }
+
+    private static void writeNullableNumber(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    private static void writeNullableString(JsonGenerator generator, String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    private static void writeDateTime(JsonGenerator generator, LocalDateTime value, char[] buffer) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            // Signed and expanded years are rare; keep the formatter for them
+            generator.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return;
+        }
+        int length = formatIsoLocalDateTime(value, year, buffer);
+        generator.writeString(buffer, 0, length);
+    }
+
+    /**
+     * Same output as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} for years 0-9999:
+     * seconds are always present and the fraction drops trailing zeros.
+     */
+    static int formatIsoLocalDateTime(LocalDateTime value, int year, char[] buffer) {
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, value.getSecond(), 2);
+
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        buffer[19] = '.';
+        writeDigits(buffer, 20, nano, 9);
+        int end = DATE_TIME_LENGTH;
+        while (buffer[end - 1] == '0') {
+            end--;
+        }
+        return end;
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
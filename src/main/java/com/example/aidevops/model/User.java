@@ -2,15 +2,26 @@ package com.example.aidevops.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.Email;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_name_id", columnList = "name, id"),
+    @Index(name = "idx_users_created_at_id", columnList = "created_at, id")
+}, uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"))
 public class User {
+
+    /** Name of the unique constraint on email, so violations of it can be told apart from others. */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Name is required")
@@ -19,12 +30,16 @@ public class User {
     
     @Email(message = "Email should be valid")
     @NotBlank(message = "Email is required")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
     
-    @Column(name = "created_at")
+    // Keyset paging by createdAt needs a value on every row
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    @Version
+    private Long version;
+    
     public User() {
         this.createdAt = LocalDateTime.now();
     }
@@ -35,6 +50,14 @@ public class User {
         this.email = email;
     }
     
+    @PrePersist
+    void defaultCreatedAt() {
+        // A request body may carry "createdAt": null
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -67,4 +90,12 @@ public class User {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.example.aidevops.protobuf;
+
+import com.example.aidevops.dto.UserPage;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.json.UserJsonWriter;
+import com.example.aidevops.model.User;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+
+/**
+ * Write-only converter encoding users API payloads as the messages declared in
+ * {@code src/main/proto/users.proto}. Encoding goes straight through
+ * {@link CodedOutputStream}, so no protoc-generated classes are needed at runtime.
+ */
+public class UserProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int USER_ID = 1;
+    private static final int USER_NAME = 2;
+    private static final int USER_EMAIL = 3;
+    private static final int USER_CREATED_AT = 4;
+    private static final int USER_VERSION = 5;
+    private static final int LIST_USERS = 1;
+    private static final int PAGE_ITEMS = 1;
+    private static final int PAGE_NEXT_CURSOR = 2;
+    private static final int PAGE_PREV_CURSOR = 3;
+
+    public UserProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return UserSummary.class == clazz || User.class == clazz || UserPage.class == clazz
+                || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!super.canWrite(type, clazz, mediaType)) {
+            return false;
+        }
+        // Declared collections of something other than users have no message type
+        if (type != null && Collection.class.isAssignableFrom(clazz)) {
+            Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+            return element == null || element == Object.class || element == UserSummary.class || element == User.class;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (value instanceof UserSummary user) {
+            writeUserFields(out, user);
+        } else if (value instanceof User user) {
+            writeUserFields(out, UserSummary.from(user));
+        } else if (value instanceof UserPage<?> page && UserJsonWriter.isUserCollection(page.items())) {
+            writeUsers(out, PAGE_ITEMS, page.items());
+            writeString(out, PAGE_NEXT_CURSOR, page.nextCursor());
+            writeString(out, PAGE_PREV_CURSOR, page.prevCursor());
+        } else if (value instanceof Collection<?> users && UserJsonWriter.isUserCollection(users)) {
+            writeUsers(out, LIST_USERS, users);
+        } else {
+            throw new HttpMessageNotWritableException("No protobuf message for " + value.getClass().getName());
+        }
+        out.flush();
+    }
+
+    private static void writeUsers(CodedOutputStream out, int field, Collection<?> users) throws IOException {
+        for (Object element : users) {
+            UserSummary user = element instanceof User entity ? UserSummary.from(entity) : (UserSummary) element;
+            String createdAt = format(user.createdAt());
+            out.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(userSize(user, createdAt));
+            writeUserFields(out, user, createdAt);
+        }
+    }
+
+    private static void writeUserFields(CodedOutputStream out, UserSummary user) throws IOException {
+        writeUserFields(out, user, format(user.createdAt()));
+    }
+
+    // proto3 omits default values (0 and ""), and so does this encoder
+    private static void writeUserFields(CodedOutputStream out, UserSummary user, String createdAt) throws IOException {
+        if (user.id() != null && user.id() != 0) {
+            out.writeInt64(USER_ID, user.id());
+        }
+        writeString(out, USER_NAME, user.name());
+        writeString(out, USER_EMAIL, user.email());
+        writeString(out, USER_CREATED_AT, createdAt);
+        if (user.version() != null && user.version() != 0) {
+            out.writeInt64(USER_VERSION, user.version());
+        }
+    }
+
+    private static int userSize(UserSummary user, String createdAt) {
+        int size = 0;
+        if (user.id() != null && user.id() != 0) {
+            size += CodedOutputStream.computeInt64Size(USER_ID, user.id());
+        }
+        size += stringSize(USER_NAME, user.name());
+        size += stringSize(USER_EMAIL, user.email());
+        size += stringSize(USER_CREATED_AT, createdAt);
+        if (user.version() != null && user.version() != 0) {
+            size += CodedOutputStream.computeInt64Size(USER_VERSION, user.version());
+        }
+        return size;
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static String format(LocalDateTime value) {
+        return value == null ? null : value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Read not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Read not supported", inputMessage);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.aidevops.repository;
+
+import com.example.aidevops.dto.UserSummary;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * R2DBC access to the users table for the reactive API. It talks to the same
+ * database as {@link UserRepository}, so writes made here are invisible to
+ * Hibernate's caches; callers evict them and publish the usual change events.
+ * <p>
+ * The connection pool is owned here rather than exposed as a bean, because a
+ * ConnectionFactory bean would switch off the JDBC DataSource auto-configuration.
+ */
+@Repository
+public class ReactiveUserRepository {
+
+    private static final String SELECT_SUMMARY = "SELECT id, name, email, created_at, version FROM users";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+    private final TransactionalOperator transactions;
+
+    public ReactiveUserRepository(@Value("${app.api.v2.r2dbc.url}") String url,
+                                  @Value("${spring.datasource.username:sa}") String username,
+                                  @Value("${spring.datasource.password:}") String password,
+                                  @Value("${app.api.v2.r2dbc.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+        this.client = DatabaseClient.create(pool);
+        this.transactions = TransactionalOperator.create(new R2dbcTransactionManager(pool));
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+
+    /**
+     * Users in id order after {@code afterId}; rows are fetched as the subscriber requests them.
+     */
+    public Flux<UserSummary> findAll(Long afterId, Integer limit) {
+        String sql = SELECT_SUMMARY + " WHERE id > :after ORDER BY id" + (limit != null ? " LIMIT :limit" : "");
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql).bind("after", afterId != null ? afterId : Long.MIN_VALUE);
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+        return spec.map(ReactiveUserRepository::toSummary).all();
+    }
+
+    public Mono<UserSummary> findById(Long id) {
+        return client.sql(SELECT_SUMMARY + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toSummary)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return client.sql("SELECT COUNT(*) FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    // Ids come from the same sequence as Hibernate's pooled generator; a raw value is the top of a block
+    // Hibernate never hands out, so both stacks can insert concurrently without clashing.
+    // NEXT VALUE FOR is the SQL-standard sequence syntax; PostgreSQL would need nextval('users_seq')
+    public Mono<UserSummary> insert(String name, String email) {
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return client.sql("INSERT INTO users (id, name, email, created_at, version) "
+                        + "VALUES (NEXT VALUE FOR users_seq, :name, :email, :createdAt, 0)")
+                .bind("name", name)
+                .bind("email", email)
+                .bind("createdAt", createdAt)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> new UserSummary(row.get("id", Long.class), name, email, createdAt, 0L))
+                .one();
+    }
+
+    /**
+     * Updates name and email, optionally only at the expected version, and reads the row
+     * back in the same transaction, whose row lock keeps other writers out in between.
+     * Empty when no row matched.
+     */
+    public Mono<UserSummary> update(Long id, String name, String email, Long expectedVersion) {
+        String sql = "UPDATE users SET name = :name, email = :email, version = version + 1 WHERE id = :id"
+                + (expectedVersion != null ? " AND version = :version" : "");
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql)
+                .bind("id", id)
+                .bind("name", name)
+                .bind("email", email);
+        if (expectedVersion != null) {
+            spec = spec.bind("version", expectedVersion);
+        }
+        return spec.fetch().rowsUpdated()
+                .flatMap(rows -> rows > 0 ? findById(id) : Mono.empty())
+                .as(transactions::transactional);
+    }
+
+    public Mono<Boolean> deleteById(Long id) {
+        return client.sql("DELETE FROM users WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(count -> count > 0);
+    }
+
+    private static UserSummary toSummary(Readable row) {
+        return new UserSummary(row.get("id", Long.class), row.get("name", String.class), row.get("email", String.class),
+                row.get("created_at", LocalDateTime.class), row.get("version", Long.class));
+    }
+}
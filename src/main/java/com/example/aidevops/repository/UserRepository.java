@@ -1,12 +1,99 @@
 package com.example.aidevops.repository;
 
+import com.example.aidevops.dto.UserSummary;
 import com.example.aidevops.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Single-statement writes that return the affected row count. Bulk JPQL bypasses the persistence
+    // context, so callers reload the row; Hibernate invalidates the User cache region and query space itself.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.name = :name, u.email = :email, u.version = u.version + 1 where u.id = :id")
+    int updateNameAndEmail(@Param("id") Long id, @Param("name") String name, @Param("email") String email);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.name = :name, u.email = :email, u.version = u.version + 1 "
+         + "where u.id = :id and u.version = :version")
+    int updateNameAndEmailIfVersion(@Param("id") Long id, @Param("name") String name,
+                                    @Param("email") String email, @Param("version") Long version);
+
+    // Reads the row itself: the User cache region is only evicted after a bulk update commits
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findCurrentById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Server-side cursor for exports; callers must consume it inside a transaction and close it
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAllBy();
+
+    // Read model: constructor projections skip entity hydration and persistence-context tracking
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u order by u.id")
+    List<UserSummary> findAllSummaries();
+
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u where u.id = :id")
+    Optional<UserSummary> findSummaryById(@Param("id") Long id);
+
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u "
+            + "where u.id in :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination: seek predicates on (sort key, id) so every page costs the same
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u")
+    Slice<UserSummary> findSummaries(Pageable pageable);
+
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u where u.id > :id")
+    Slice<UserSummary> findSummariesAfterId(@Param("id") Long id, Pageable pageable);
+
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u where u.id < :id")
+    Slice<UserSummary> findSummariesBeforeId(@Param("id") Long id, Pageable pageable);
+
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u "
+            + "where u.name > :name or (u.name = :name and u.id > :id)")
+    Slice<UserSummary> findSummariesAfterName(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u "
+            + "where u.name < :name or (u.name = :name and u.id < :id)")
+    Slice<UserSummary> findSummariesBeforeName(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u "
+            + "where u.createdAt > :createdAt or (u.createdAt = :createdAt and u.id > :id)")
+    Slice<UserSummary> findSummariesAfterCreatedAt(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("select new com.example.aidevops.dto.UserSummary(u.id, u.name, u.email, u.createdAt, u.version) from User u "
+            + "where u.createdAt < :createdAt or (u.createdAt = :createdAt and u.id < :id)")
+    Slice<UserSummary> findSummariesBeforeCreatedAt(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+}
@@ -0,0 +1,185 @@
+package com.example.aidevops.service;
+
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * DataLoader-style micro-batcher for id lookups. Ids requested within a short
+ * window are collected and resolved with one IN query; a batch is dispatched
+ * early once it reaches the maximum size. The scheduler thread only keeps time:
+ * batches are queried on a small platform-thread pool, which keeps running even
+ * when every virtual-thread carrier is pinned. {@link #loadAsync} never blocks, so
+ * it is safe to call from inside a cache; {@link #await} bounds the wait.
+ */
+@Component
+public class UserBatchLoader {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long timeoutNanos;
+    private final DistributionSummary batchSizes;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService dispatcher;
+
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<Optional<UserSummary>>> pending = new HashMap<>();
+    private boolean flushScheduled;
+    private boolean closed;
+
+    public UserBatchLoader(UserRepository userRepository,
+                           @Value("${app.users.batch-loader.enabled:true}") boolean enabled,
+                           @Value("${app.users.batch-loader.window:2ms}") Duration window,
+                           @Value("${app.users.batch-loader.max-batch-size:100}") int maxBatchSize,
+                           @Value("${app.users.batch-loader.timeout:5s}") Duration timeout,
+                           @Value("${app.users.batch-loader.dispatch-threads:4}") int dispatchThreads,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutNanos = timeout.toNanos();
+        this.batchSizes = DistributionSummary.builder("users.batch.size")
+                .tag("source", "loader")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-batch-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger dispatchCount = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "user-batch-dispatch-" + dispatchCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Optional<UserSummary> load(Long id) {
+        return await(id, loadAsync(id));
+    }
+
+    /**
+     * Queues {@code id} for the next batch. Without batching (disabled or shut down)
+     * the lookup runs directly on the calling thread.
+     */
+    public CompletableFuture<Optional<UserSummary>> loadAsync(Long id) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(userRepository.findSummaryById(id));
+        }
+
+        CompletableFuture<Optional<UserSummary>> result;
+        Map<Long, CompletableFuture<Optional<UserSummary>>> full = null;
+        synchronized (lock) {
+            if (closed) {
+                return CompletableFuture.completedFuture(userRepository.findSummaryById(id));
+            }
+            result = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new HashMap<>();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flushPending, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            // A full batch does not wait for the window
+            submit(full);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for a lookup from {@link #loadAsync}, up to the configured timeout.
+     */
+    public Optional<UserSummary> await(Long id, CompletableFuture<Optional<UserSummary>> result) {
+        try {
+            return result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Timed out waiting for batched lookup of user " + id, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted waiting for batched lookup of user " + id, e);
+        }
+    }
+
+    private void flushPending() {
+        Map<Long, CompletableFuture<Optional<UserSummary>>> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new HashMap<>();
+            flushScheduled = false;
+        }
+        if (!batch.isEmpty()) {
+            submit(batch);
+        }
+    }
+
+    private void submit(Map<Long, CompletableFuture<Optional<UserSummary>>> batch) {
+        try {
+            dispatcher.execute(() -> dispatch(batch));
+        } catch (RejectedExecutionException e) {
+            fail(batch, e);
+        }
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<Optional<UserSummary>>> batch) {
+        batchSizes.record(batch.size());
+        try {
+            Map<Long, UserSummary> found = userRepository.findSummariesByIdIn(batch.keySet()).stream()
+                    .collect(Collectors.toMap(UserSummary::id, Function.identity()));
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        }
+    }
+
+    private static void fail(Map<Long, CompletableFuture<Optional<UserSummary>>> batch, Throwable cause) {
+        batch.values().forEach(future -> future.completeExceptionally(cause));
+    }
+
+    /**
+     * Stops batching. Lookups still waiting for a window are failed rather than left to time out,
+     * and later lookups query directly.
+     */
+    @PreDestroy
+    void shutdown() {
+        Map<Long, CompletableFuture<Optional<UserSummary>>> abandoned;
+        synchronized (lock) {
+            closed = true;
+            abandoned = pending;
+            pending = new HashMap<>();
+        }
+        scheduler.shutdownNow();
+        dispatcher.shutdown();
+        fail(abandoned, new IllegalStateException("User batch loader is shutting down"));
+    }
+}
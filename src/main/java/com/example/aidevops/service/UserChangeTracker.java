@@ -0,0 +1,94 @@
+package com.example.aidevops.service;
+
+import com.example.aidevops.dto.UserChanges;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table-level change counter for the users table. It is bumped after every
+ * committed change, so collection responses can be validated with a cheap
+ * comparison instead of a query. The epoch keeps tags from a previous process
+ * lifetime from matching after a restart.
+ * <p>
+ * The most recent changes are kept in a bounded log so clients can catch up
+ * with {@link #changesSince(String)} instead of reloading the whole list.
+ */
+@Component
+public class UserChangeTracker {
+
+    private final long epoch = System.currentTimeMillis();
+    private final String epochPrefix = Long.toString(epoch, 36) + ".";
+    private final UserChangedEvent[] log;
+    private volatile long version;
+
+    public UserChangeTracker(@Value("${app.users.changes.capacity:1000}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("app.users.changes.capacity must be positive");
+        }
+        this.log = new UserChangedEvent[capacity];
+    }
+
+    public long currentVersion() {
+        return version;
+    }
+
+    public String currentTag() {
+        return epochPrefix + version;
+    }
+
+    /**
+     * Net effect of every change after the given tag: the latest state of each
+     * created or updated user, and the ids of deleted users. Asks for a resync when
+     * the tag comes from another process lifetime or has fallen out of the log.
+     */
+    public synchronized UserChanges changesSince(String since) {
+        long from = parseVersion(since);
+        if (from < 0 || from > version || version - from > log.length) {
+            return UserChanges.resync(currentTag());
+        }
+        Map<Long, UserChangedEvent> latest = new LinkedHashMap<>();
+        for (long v = from + 1; v <= version; v++) {
+            UserChangedEvent event = log[(int) (v % log.length)];
+            latest.remove(event.id());
+            latest.put(event.id(), event);
+        }
+        List<UserSummary> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (UserChangedEvent event : latest.values()) {
+            if (event.type() == UserChangedEvent.Type.DELETED) {
+                deletes.add(event.id());
+            } else {
+                upserts.add(event.user());
+            }
+        }
+        return new UserChanges(currentTag(), false, upserts, deletes);
+    }
+
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        long next = version + 1;
+        log[(int) (next % log.length)] = event;
+        version = next;
+    }
+
+    private long parseVersion(String tag) {
+        if (tag == null || !tag.startsWith(epochPrefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(tag.substring(epochPrefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,50 +1,375 @@
 package com.example.aidevops.service;
 
+import com.example.aidevops.cache.SingleFlight;
+import com.example.aidevops.cache.UserCache;
+import com.example.aidevops.dto.UserBatchResult;
+import com.example.aidevops.dto.UserCursor;
+import com.example.aidevops.dto.UserPage;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.event.UserChangedEvent;
+import com.example.aidevops.exception.BadRequestException;
+import com.example.aidevops.exception.DuplicateEmailException;
+import com.example.aidevops.exception.VersionConflictException;
+import com.example.aidevops.json.UserJsonWriter;
 import com.example.aidevops.model.User;
 import com.example.aidevops.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
     
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    // Matches hibernate.jdbc.batch_size so each chunk is flushed as a single JDBC batch
+    private static final int BATCH_CHUNK_SIZE = 50;
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+    
     @Autowired
     private UserRepository userRepository;
     
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private UserJsonWriter userJsonWriter;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private UserBatchLoader batchLoader;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private SingleFlight<Long, Optional<UserSummary>> byIdLookups;
+    private SingleFlight<String, Optional<UserSummary>> byEmailLookups;
+    private DistributionSummary multiGetSizes;
+    
+    @PostConstruct
+    void initLookups() {
+        byIdLookups = new SingleFlight<>(meterRegistry.counter("users.lookup.coalesced", "key", "id"));
+        byEmailLookups = new SingleFlight<>(meterRegistry.counter("users.lookup.coalesced", "key", "email"));
+        multiGetSizes = DistributionSummary.builder("users.batch.size")
+                .tag("source", "multiget")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<UserSummary> getAllUsers() {
+        return userRepository.findAllSummaries();
+    }
+    
+    /**
+     * Writes every user as newline-delimited JSON while scrolling a database cursor.
+     * Rows are detached as soon as they are written so heap use does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out) throws IOException {
+        JsonGenerator generator = userJsonWriter.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        
+        try (Stream<User> users = userRepository.streamAllBy()) {
+            int written = 0;
+            for (User user : (Iterable<User>) users::iterator) {
+                userJsonWriter.write(generator, user);
+                generator.writeRaw('\n');
+                entityManager.detach(user);
+                // Flush the first row immediately, then in small batches
+                if (++written == 1 || written % EXPORT_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        generator.flush();
     }
     
-    public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+    @Transactional(readOnly = true)
+    public UserPage<UserSummary> getUsersPage(UserCursor cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        boolean backward = cursor.direction() == UserCursor.Direction.PREV;
+        Pageable pageable = PageRequest.of(0, size, sortFor(cursor.sort(), backward));
+        
+        Slice<UserSummary> slice = fetchSlice(cursor, pageable);
+        List<UserSummary> items = new ArrayList<>(slice.getContent());
+        if (backward) {
+            Collections.reverse(items);
+        }
+        if (items.isEmpty()) {
+            return new UserPage<>(items, null, null);
+        }
+        
+        // A backward page always has a successor; a forward page has a predecessor unless it is the first
+        boolean hasNext = backward || slice.hasNext();
+        boolean hasPrev = backward ? slice.hasNext() : !cursor.isFirstPage();
+        String next = hasNext ? cursorFor(cursor.sort(), UserCursor.Direction.NEXT, items.get(items.size() - 1)) : null;
+        String prev = hasPrev ? cursorFor(cursor.sort(), UserCursor.Direction.PREV, items.get(0)) : null;
+        return new UserPage<>(items, next, prev);
     }
     
-    public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+    private Slice<UserSummary> fetchSlice(UserCursor cursor, Pageable pageable) {
+        if (cursor.isFirstPage()) {
+            return userRepository.findSummaries(pageable);
+        }
+        boolean backward = cursor.direction() == UserCursor.Direction.PREV;
+        return switch (cursor.sort()) {
+            case ID -> backward
+                    ? userRepository.findSummariesBeforeId(cursor.id(), pageable)
+                    : userRepository.findSummariesAfterId(cursor.id(), pageable);
+            case NAME -> backward
+                    ? userRepository.findSummariesBeforeName(cursor.value(), cursor.id(), pageable)
+                    : userRepository.findSummariesAfterName(cursor.value(), cursor.id(), pageable);
+            case CREATED_AT -> backward
+                    ? userRepository.findSummariesBeforeCreatedAt(cursor.createdAtValue(), cursor.id(), pageable)
+                    : userRepository.findSummariesAfterCreatedAt(cursor.createdAtValue(), cursor.id(), pageable);
+        };
     }
     
+    private static Sort sortFor(UserCursor.Sort sort, boolean backward) {
+        Sort.Direction direction = backward ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return switch (sort) {
+            case ID -> Sort.by(direction, "id");
+            case NAME -> Sort.by(direction, "name", "id");
+            case CREATED_AT -> Sort.by(direction, "createdAt", "id");
+        };
+    }
+    
+    private static String cursorFor(UserCursor.Sort sort, UserCursor.Direction direction, UserSummary user) {
+        String value = switch (sort) {
+            case ID -> null;
+            case NAME -> user.name();
+            case CREATED_AT -> user.createdAt().toString();
+        };
+        return new UserCursor(sort, direction, user.id(), value).encode();
+    }
+    
+    /**
+     * Cache hits return directly; concurrent misses for the same id share one query,
+     * and misses for different ids arriving together are batched into one IN query.
+     */
+    public Optional<UserSummary> getUserById(Long id) {
+        return userCache.peekById(id).or(() -> byIdLookups.execute(id,
+                () -> batchLoader.await(id, userCache.getById(id, batchLoader::loadAsync))));
+    }
+    
+    /**
+     * Resolves many ids with a single IN query, in request order, skipping unknown ids.
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummary> getUsersByIds(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > MAX_PAGE_SIZE) {
+            throw new BadRequestException("At most " + MAX_PAGE_SIZE + " ids per request");
+        }
+        multiGetSizes.record(distinct.size());
+        Map<Long, UserSummary> found = userRepository.findSummariesByIdIn(distinct).stream()
+                .collect(Collectors.toMap(UserSummary::id, Function.identity()));
+        return distinct.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+    
+    public Optional<UserSummary> getUserByEmail(String email) {
+        return userCache.peekByEmail(email).or(() -> byEmailLookups.execute(email,
+                () -> userCache.getByEmail(email, key -> userRepository.findByEmail(key).map(UserSummary::from))));
+    }
+    
+    /**
+     * Inserts directly and lets the unique email constraint reject duplicates, which
+     * costs one round trip and cannot race the way a check-then-insert does.
+     */
     public User createUser(User user) {
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("User with email " + user.getEmail() + " already exists");
+        user.setId(null);
+        user.setVersion(null);
+        User created;
+        try {
+            created = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!DuplicateEmailException.isCausedBy(e)) {
+                throw e;
+            }
+            throw new DuplicateEmailException(user.getEmail(), e);
         }
-        return userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.created(UserSummary.from(created)));
+        return created;
     }
     
-    public User updateUser(Long id, User userDetails) {
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-        
-        user.setName(userDetails.getName());
-        user.setEmail(userDetails.getEmail());
+    /**
+     * Creates many users in chunked transactions so Hibernate can send each chunk as one
+     * JDBC batch. Every entry gets its own result; invalid or duplicate entries do not
+     * prevent the rest of the request from being inserted.
+     */
+    public List<UserBatchResult> createUsers(List<User> users) {
+        if (users.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch size exceeds limit of " + MAX_BATCH_SIZE);
+        }
         
-        return userRepository.save(user);
+        UserBatchResult[] results = new UserBatchResult[users.size()];
+        Set<String> seenEmails = new HashSet<>();
+        List<Integer> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (user == null) {
+                results[i] = UserBatchResult.failed(i, 400, "Entry is empty");
+                continue;
+            }
+            Set<ConstraintViolation<User>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                results[i] = UserBatchResult.failed(i, 400, message);
+                continue;
+            }
+            if (!seenEmails.add(user.getEmail())) {
+                results[i] = UserBatchResult.failed(i, 409, "Duplicate email " + user.getEmail() + " in batch");
+                continue;
+            }
+            user.setId(null);
+            user.setVersion(null);
+            chunk.add(i);
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                insertChunk(users, chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(users, chunk, results);
+        }
+        return Arrays.asList(results);
+    }
+    
+    private void insertChunk(List<User> users, List<Integer> indexes, UserBatchResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> emails = indexes.stream().map(i -> users.get(i).getEmail()).toList();
+                Set<String> existing = userRepository.findExistingEmails(emails);
+                List<User> toInsert = new ArrayList<>(indexes.size());
+                for (int i : indexes) {
+                    User user = users.get(i);
+                    if (existing.contains(user.getEmail())) {
+                        results[i] = UserBatchResult.failed(i, 409, "User with email " + user.getEmail() + " already exists");
+                    } else {
+                        toInsert.add(user);
+                    }
+                }
+                userRepository.saveAll(toInsert);
+                userRepository.flush();
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (!DuplicateEmailException.isCausedBy(e)) {
+                throw e;
+            }
+            // A concurrent writer claimed one of the emails; retry entry by entry to isolate it
+            for (int i : indexes) {
+                User user = users.get(i);
+                user.setId(null);
+                user.setVersion(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> userRepository.saveAndFlush(user));
+                } catch (DataIntegrityViolationException ex) {
+                    if (!DuplicateEmailException.isCausedBy(ex)) {
+                        throw ex;
+                    }
+                    results[i] = UserBatchResult.failed(i, 409, "User with email " + user.getEmail() + " already exists");
+                }
+            }
+            entityManager.clear();
+        }
+        for (int i : indexes) {
+            if (results[i] == null) {
+                User user = users.get(i);
+                results[i] = UserBatchResult.created(i, user.getId());
+                eventPublisher.publishEvent(UserChangedEvent.created(UserSummary.from(user)));
+            }
+        }
+    }
+    
+    @Transactional
+    public User updateUser(Long id, User userDetails) {
+        return updateUser(id, userDetails, null);
     }
     
+    /**
+     * Updates name and email in one statement. When {@code expectedVersion} is given the
+     * update only applies if the row is still at that version (If-Match semantics).
+     */
+    @Transactional
+    public User updateUser(Long id, User userDetails, Long expectedVersion) {
+        int rows;
+        try {
+            rows = expectedVersion == null
+                ? userRepository.updateNameAndEmail(id, userDetails.getName(), userDetails.getEmail())
+                : userRepository.updateNameAndEmailIfVersion(id, userDetails.getName(), userDetails.getEmail(), expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            if (!DuplicateEmailException.isCausedBy(e)) {
+                throw e;
+            }
+            throw new DuplicateEmailException(userDetails.getEmail(), e);
+        }
+        if (rows == 0) {
+            if (expectedVersion != null && userRepository.existsById(id)) {
+                throw new VersionConflictException(id, expectedVersion);
+            }
+            throw new RuntimeException("User not found with id: " + id);
+        }
+        // The row is locked by our update until commit, so this read sees exactly what was written
+        User updated = userRepository.findCurrentById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        // No manual cache eviction: for a bulk update Hibernate evicts the User region and invalidates the
+        // users query space when the transaction completes, so no reader can re-cache the pre-commit row
+        eventPublisher.publishEvent(UserChangedEvent.updated(UserSummary.from(updated)));
+        return updated;
+    }
+    
+    @Transactional
     public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-        userRepository.delete(user);
+        if (userRepository.deleteUserById(id) == 0) {
+            throw new RuntimeException("User not found with id: " + id);
+        }
+        eventPublisher.publishEvent(UserChangedEvent.deleted(id));
     }
-}
\ No newline at end of file
+}
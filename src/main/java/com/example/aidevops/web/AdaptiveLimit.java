@@ -0,0 +1,116 @@
+package com.example.aidevops.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows measured latency, in the style of Netflix's
+ * gradient limiter. Every window of samples compares recent latency with a slow
+ * long-term average: while they agree the limit grows by about its square root,
+ * and once recent latency exceeds the long-term average by more than the tolerance
+ * (requests are queuing somewhere) it shrinks in proportion.
+ */
+final class AdaptiveLimit {
+
+    private static final double LONG_RTT_ALPHA = 2.0 / (600 + 1);
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int windowSize;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimate;
+    private double longRtt;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing, int windowSize) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowSize = windowSize;
+        this.estimate = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Takes a slot if one is free. Never waits.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a slot taken by {@link #tryAcquire()} along with how long the request
+     * held it. Dropped requests (server errors) back the limit off without a latency sample.
+     */
+    void release(long rttNanos, boolean dropped) {
+        int held = inFlight.getAndDecrement();
+        onSample(rttNanos, dropped, held);
+    }
+
+    synchronized void onSample(long rttNanos, boolean dropped, int inFlightAtStart) {
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (dropped) {
+            windowDropped = true;
+        } else {
+            windowRttSum += rttNanos;
+        }
+        if (++windowCount < windowSize) {
+            return;
+        }
+        update();
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+
+    private void update() {
+        double newLimit;
+        if (windowDropped) {
+            newLimit = estimate * DROP_BACKOFF;
+        } else {
+            double shortRtt = (double) windowRttSum / windowCount;
+            longRtt = longRtt == 0 ? shortRtt : longRtt * (1 - LONG_RTT_ALPHA) + shortRtt * LONG_RTT_ALPHA;
+            // After a slow period, let the baseline come back down quickly instead of over ~600 windows
+            if (longRtt > shortRtt * 2) {
+                longRtt *= 0.95;
+            }
+            if (windowMaxInFlight < estimate / 2) {
+                // Demand is well below the limit, so latency says nothing about headroom
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            newLimit = estimate * gradient + Math.sqrt(estimate);
+        }
+        estimate = Math.max(minLimit, Math.min(maxLimit, estimate * (1 - smoothing) + newLimit * smoothing));
+        limit = (int) estimate;
+    }
+}
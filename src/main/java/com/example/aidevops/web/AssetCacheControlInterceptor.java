@@ -0,0 +1,33 @@
+package com.example.aidevops.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Fingerprinted static assets never change under their URL, so browsers may keep
+ * them for a year without revalidating. Plain asset URLs must revalidate.
+ */
+public class AssetCacheControlInterceptor implements HandlerInterceptor {
+
+    private static final Pattern FINGERPRINT = Pattern.compile("-[0-9a-f]{32}\\.[^/.]+$");
+
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+
+    private static final String REVALIDATE = CacheControl.noCache().getHeaderValue();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof ResourceHttpRequestHandler) {
+            boolean fingerprinted = FINGERPRINT.matcher(request.getRequestURI()).find();
+            response.setHeader(HttpHeaders.CACHE_CONTROL, fingerprinted ? IMMUTABLE : REVALIDATE);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.aidevops.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gzip for API responses. Bodies smaller than the threshold, or with a content
+ * type outside the allowlist, go out unchanged. A compressed body carries its
+ * entity tag with a {@code -gzip} suffix, which conditional requests may echo.
+ * Static assets are not handled here; they are precompressed at build time.
+ */
+@Component
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final int level;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final DistributionSummary ratio;
+    private final Timer cpuTime;
+
+    public CompressionFilter(@Value("${app.compression.enabled:true}") boolean enabled,
+                             @Value("${app.compression.level:6}") int level,
+                             @Value("${app.compression.min-response-size:1KB}") DataSize minResponseSize,
+                             @Value("${app.compression.mime-types:application/json,application/x-ndjson}") List<MediaType> mimeTypes,
+                             MeterRegistry meterRegistry) {
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("app.compression.level must be between 1 and 9");
+        }
+        this.enabled = enabled;
+        this.level = level;
+        this.minResponseSize = (int) minResponseSize.toBytes();
+        this.mimeTypes = List.copyOf(mimeTypes);
+        this.ratio = DistributionSummary.builder("http.server.compression.ratio")
+                .description("Compressed size divided by original size")
+                .tag("encoding", "gzip")
+                .register(meterRegistry);
+        this.cpuTime = Timer.builder("http.server.compression.cpu")
+                .description("CPU time spent compressing a response")
+                .tag("encoding", "gzip")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/")
+                // The reactive API writes with non-blocking servlet I/O, which this wrapper does not support
+                || request.getRequestURI().startsWith(request.getContextPath() + "/api/v2/")
+                || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Streaming bodies finish on the async dispatch, which is where the gzip trailer gets written
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        GzipResponseWrapper wrapper = WebUtils.getNativeResponse(response, GzipResponseWrapper.class);
+        if (wrapper == null) {
+            if (!isAsyncDispatch(request)) {
+                // Identity responses vary on Accept-Encoding too, or a cache could serve them to gzip clients
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            request = new GzipRequestWrapper(request);
+            wrapper = new GzipResponseWrapper(request, response, this);
+        } else if (WebUtils.getNativeRequest(request, GzipRequestWrapper.class) == null) {
+            request = new GzipRequestWrapper(request);
+        }
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (!request.isAsyncStarted()) {
+                wrapper.finish();
+            }
+        } finally {
+            if (!request.isAsyncStarted()) {
+                wrapper.release();
+            }
+        }
+    }
+
+    int level() {
+        return level;
+    }
+
+    int minResponseSize() {
+        return minResponseSize;
+    }
+
+    boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType type = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(allowed -> allowed.includes(type));
+    }
+
+    void record(long originalBytes, long compressedBytes, long cpuNanos) {
+        if (originalBytes > 0) {
+            ratio.record((double) compressedBytes / originalBytes);
+        }
+        cpuTime.record(cpuNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The entity tag of the gzip form of a representation tagged {@code etag}.
+     */
+    public static String gzipETag(String etag) {
+        return GzipRequestWrapper.gzipTag(etag);
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException ex) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.aidevops.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Adaptive concurrency limit for /api/users/**. Reads and writes get separate
+ * {@link AdaptiveLimit}s so a burst of slow writes cannot starve lookups. A request
+ * over the limit fails fast with 503 and Retry-After rather than queuing: with
+ * virtual threads Tomcat no longer caps concurrency itself, so without this a slow
+ * database lets requests pile up without bound.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String PATH = "/api/users";
+    private static final String REJECTED_BODY = "{\"error\":\"Too many concurrent requests, retry later\"}";
+
+    private final boolean enabled;
+    private final AdaptiveLimit readLimit;
+    private final AdaptiveLimit writeLimit;
+    private final List<String> excludedPaths;
+    private final String retryAfterSeconds;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+
+    public ConcurrencyLimitFilter(@Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${app.concurrency-limit.read.initial:20}") int readInitial,
+                                  @Value("${app.concurrency-limit.read.min:4}") int readMin,
+                                  @Value("${app.concurrency-limit.read.max:200}") int readMax,
+                                  @Value("${app.concurrency-limit.write.initial:10}") int writeInitial,
+                                  @Value("${app.concurrency-limit.write.min:2}") int writeMin,
+                                  @Value("${app.concurrency-limit.write.max:50}") int writeMax,
+                                  @Value("${app.concurrency-limit.tolerance:1.5}") double tolerance,
+                                  @Value("${app.concurrency-limit.smoothing:0.2}") double smoothing,
+                                  @Value("${app.concurrency-limit.window:20}") int window,
+                                  @Value("${app.concurrency-limit.retry-after:1s}") Duration retryAfter,
+                                  @Value("${app.concurrency-limit.exclude:/api/users/stream,/api/users/export}") List<String> excludedPaths,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.readLimit = new AdaptiveLimit(readInitial, readMin, readMax, tolerance, smoothing, window);
+        this.writeLimit = new AdaptiveLimit(writeInitial, writeMin, writeMax, tolerance, smoothing, window);
+        this.excludedPaths = List.copyOf(excludedPaths);
+        this.retryAfterSeconds = String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+        this.readRejections = register(meterRegistry, "read", readLimit);
+        this.writeRejections = register(meterRegistry, "write", writeLimit);
+    }
+
+    private static Counter register(MeterRegistry meterRegistry, String requestClass, AdaptiveLimit limit) {
+        Gauge.builder("http.server.concurrency.limit", limit, AdaptiveLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("class", requestClass)
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.inflight", limit, AdaptiveLimit::inFlight)
+                .description("Requests currently holding a concurrency slot")
+                .tag("class", requestClass)
+                .register(meterRegistry);
+        return Counter.builder("http.server.concurrency.rejected")
+                .description("Requests turned away with 503 because the limit was reached")
+                .tag("class", requestClass)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.equals(PATH) && !path.startsWith(PATH + "/")) {
+            return true;
+        }
+        // Long-lived streams would hold a slot for minutes and skew the latency baseline
+        return excludedPaths.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean read = isRead(request.getMethod());
+        AdaptiveLimit limit = read ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            (read ? readRejections : writeRejections).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(REJECTED_BODY);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limit, start, response));
+            } else {
+                limit.release(System.nanoTime() - start, failed || isServerError(response));
+            }
+        }
+    }
+
+    private static boolean isRead(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static boolean isServerError(HttpServletResponse response) {
+        return response.getStatus() >= 500;
+    }
+
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveLimit limit;
+        private final long start;
+        private final HttpServletResponse response;
+        private volatile boolean timedOut;
+
+        ReleaseOnCompletion(AdaptiveLimit limit, long start, HttpServletResponse response) {
+            this.limit = limit;
+            this.start = start;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release(System.nanoTime() - start, timedOut || isServerError(response));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete follows and releases the slot
+            timedOut = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete follows and releases the slot
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
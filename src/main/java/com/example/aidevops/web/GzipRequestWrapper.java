@@ -0,0 +1,68 @@
+package com.example.aidevops.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Presents entity tags that the filter suffixed for a gzip body in their identity
+ * form, so conditional requests are evaluated against the tags handlers compute.
+ */
+final class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+    static final String ETAG_SUFFIX = "-gzip";
+
+    private final boolean gzipTagSent;
+
+    GzipRequestWrapper(HttpServletRequest request) {
+        super(request);
+        this.gzipTagSent = Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH)).stream()
+                .anyMatch(GzipRequestWrapper::hasGzipTag);
+    }
+
+    /**
+     * Whether If-None-Match carried a tag from an earlier gzip response.
+     */
+    boolean gzipTagSent() {
+        return gzipTagSent;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        String value = super.getHeader(name);
+        return isConditional(name) ? identityTags(value) : value;
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        Enumeration<String> values = super.getHeaders(name);
+        if (!isConditional(name) || values == null) {
+            return values;
+        }
+        List<String> identity = Collections.list(values).stream().map(GzipRequestWrapper::identityTags).toList();
+        return Collections.enumeration(identity);
+    }
+
+    static String gzipTag(String etag) {
+        if (etag == null || !etag.endsWith("\"") || etag.endsWith(ETAG_SUFFIX + "\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + ETAG_SUFFIX + "\"";
+    }
+
+    private static boolean isConditional(String name) {
+        return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) || HttpHeaders.IF_MATCH.equalsIgnoreCase(name);
+    }
+
+    private static boolean hasGzipTag(String value) {
+        return value != null && value.contains(ETAG_SUFFIX + "\"");
+    }
+
+    private static String identityTags(String value) {
+        return hasGzipTag(value) ? value.replace(ETAG_SUFFIX + "\"", "\"") : value;
+    }
+}
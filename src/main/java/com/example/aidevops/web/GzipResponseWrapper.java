@@ -0,0 +1,412 @@
+package com.example.aidevops.web;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds back the first bytes of a response until it is clear whether the body is
+ * worth compressing: it must outgrow the threshold, or be flushed from an async
+ * (streaming) handler. Smaller bodies are released as-is with their declared
+ * Content-Length.
+ */
+final class GzipResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final HttpServletRequest request;
+    private final CompressionFilter filter;
+    private long declaredLength = -1;
+    private CompressingStream stream;
+    private PrintWriter writer;
+    private boolean bypass;
+
+    GzipResponseWrapper(HttpServletRequest request, HttpServletResponse response, CompressionFilter filter) {
+        super(response);
+        this.request = request;
+        this.filter = filter;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (bypass) {
+            super.setContentLengthLong(len);
+        } else {
+            declaredLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (!bypass && HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            declaredLength = value != null ? Long.parseLong(value) : -1;
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (!bypass && HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            declaredLength = Long.parseLong(value);
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (!bypass && HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            declaredLength = value;
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (!bypass && HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            declaredLength = value;
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (bypass) {
+            return super.getOutputStream();
+        }
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        return stream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (bypass) {
+            return super.getWriter();
+        }
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (stream == null && !bypass) {
+            // A bodiless 304 commits here
+            tagNotModified();
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        if (stream != null) {
+            stream.flush();
+        } else {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (stream != null) {
+            stream.discardPending();
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        if (stream != null) {
+            stream.discardPending();
+        }
+        declaredLength = -1;
+        super.reset();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        abandon();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        abandon();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        abandon();
+        super.sendRedirect(location);
+    }
+
+    /**
+     * Releases whatever is still held back and writes the gzip trailer.
+     */
+    void finish() throws IOException {
+        if (bypass) {
+            return;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        if (stream != null) {
+            stream.finish();
+            return;
+        }
+        tagNotModified();
+        if (declaredLength >= 0) {
+            super.setContentLengthLong(declaredLength);
+        }
+    }
+
+    /**
+     * Frees the compressor's native memory. Safe to call more than once, and after
+     * {@link #finish()}; needed on its own when the request fails before finishing.
+     */
+    void release() {
+        if (stream != null) {
+            stream.release();
+        }
+    }
+
+    /**
+     * A 304 repeats the tag the client holds, which is the gzip form if it sent one.
+     */
+    private void tagNotModified() {
+        if (getStatus() == HttpStatus.NOT_MODIFIED.value()
+                && request instanceof GzipRequestWrapper conditional && conditional.gzipTagSent()) {
+            switchETag();
+        }
+    }
+
+    private void switchETag() {
+        String etag = getHeader(HttpHeaders.ETAG);
+        if (etag != null && !isCommitted()) {
+            super.setHeader(HttpHeaders.ETAG, CompressionFilter.gzipETag(etag));
+        }
+    }
+
+    private void abandon() {
+        if (stream != null) {
+            stream.discardPending();
+            stream.release();
+        }
+        bypass = true;
+    }
+
+    private CompressingStream stream() {
+        if (stream == null) {
+            stream = new CompressingStream();
+        }
+        return stream;
+    }
+
+    private boolean shouldCompress() {
+        int status = getStatus();
+        return status != HttpStatus.NO_CONTENT.value()
+                && status != HttpStatus.NOT_MODIFIED.value()
+                && status != HttpStatus.PARTIAL_CONTENT.value()
+                && !containsHeader(HttpHeaders.CONTENT_ENCODING)
+                && filter.isCompressible(getContentType());
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private final class CompressingStream extends ServletOutputStream {
+
+        private byte[] pending = new byte[filter.minResponseSize()];
+        private int pendingCount;
+        private OutputStream target;
+        private LeveledGzipStream gzip;
+        private long originalBytes;
+        private long compressedBytes;
+        private long cpuNanos;
+        private boolean finished;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (target == null) {
+                if (pendingCount + len <= pending.length) {
+                    System.arraycopy(b, off, pending, pendingCount, len);
+                    pendingCount += len;
+                    return;
+                }
+                open(true);
+            }
+            writeThrough(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (target == null) {
+                // Synchronous handlers flush at the end of every message; only streams commit early
+                if (!request.isAsyncStarted()) {
+                    return;
+                }
+                open(true);
+            }
+            if (gzip != null) {
+                long start = cpuTime();
+                gzip.flush();
+                cpuNanos += cpuTime() - start;
+            } else {
+                target.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return target == null || isUnderlyingReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                GzipResponseWrapper.super.getOutputStream().setWriteListener(writeListener);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        void discardPending() {
+            pendingCount = 0;
+        }
+
+        void release() {
+            if (gzip != null) {
+                gzip.end();
+            }
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (target == null) {
+                open(false);
+            }
+            if (gzip != null) {
+                long start = cpuTime();
+                try {
+                    gzip.finish();
+                } finally {
+                    gzip.end();
+                }
+                cpuNanos += cpuTime() - start;
+                filter.record(originalBytes, compressedBytes, cpuNanos);
+            }
+            target.flush();
+        }
+
+        private boolean isUnderlyingReady() {
+            try {
+                return GzipResponseWrapper.super.getOutputStream().isReady();
+            } catch (IOException ex) {
+                return false;
+            }
+        }
+
+        private void open(boolean large) throws IOException {
+            ServletOutputStream out = GzipResponseWrapper.super.getOutputStream();
+            if (large && shouldCompress()) {
+                GzipResponseWrapper.super.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                // The gzip bytes are a different representation; reusing the identity tag would let a cache
+                // answer an identity request with them
+                switchETag();
+                OutputStream counting = new OutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                        compressedBytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                        compressedBytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        out.flush();
+                    }
+                };
+                gzip = new LeveledGzipStream(counting, filter.level());
+                target = gzip;
+            } else {
+                if (declaredLength >= 0) {
+                    GzipResponseWrapper.super.setContentLengthLong(declaredLength);
+                }
+                target = out;
+            }
+            byte[] held = pending;
+            int count = pendingCount;
+            pending = null;
+            pendingCount = 0;
+            if (count > 0) {
+                writeThrough(held, 0, count);
+            }
+        }
+
+        private void writeThrough(byte[] b, int off, int len) throws IOException {
+            if (gzip != null) {
+                long start = cpuTime();
+                gzip.write(b, off, len);
+                cpuNanos += cpuTime() - start;
+                originalBytes += len;
+            } else {
+                target.write(b, off, len);
+            }
+        }
+    }
+
+    /**
+     * GZIPOutputStream only ends a Deflater it created itself, and only on close, which
+     * would close the servlet stream too; this one can end it without closing.
+     */
+    private static final class LeveledGzipStream extends GZIPOutputStream {
+
+        LeveledGzipStream(OutputStream out, int level) throws IOException {
+            super(out, 8192, true);
+            def.setLevel(level);
+        }
+
+        void end() {
+            def.end();
+        }
+    }
+}
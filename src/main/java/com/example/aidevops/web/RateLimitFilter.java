@@ -0,0 +1,133 @@
+package com.example.aidevops.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token-bucket rate limiting in front of the users API. Clients are
+ * identified by their API key header when the key is one of the configured keys,
+ * otherwise by remote address, so inventing keys never buys more requests. Every
+ * limited response carries RateLimit-Limit, RateLimit-Remaining and RateLimit-Reset;
+ * a request over the limit gets 429 with Retry-After. Runs ahead of
+ * {@link ConcurrencyLimitFilter} so throttled clients never take a concurrency slot.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final String REJECTED_BODY = "{\"error\":\"Rate limit exceeded\"}";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final RateLimiter limiter;
+    private final Counter[] rejections;
+    private final ScheduledExecutorService evictor;
+
+    public RateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.rules:POST /api/users/**=30/1m}") List<String> rules,
+                           @Value("${app.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader,
+                           @Value("${app.rate-limit.api-keys:}") Set<String> apiKeys,
+                           @Value("${app.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                           @Value("${app.rate-limit.max-clients:100000}") int maxClients,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.limiter = new RateLimiter(rules.stream().map(RateLimitRule::parse).toList(), idleTimeout.toNanos(), maxClients);
+        List<RateLimitRule> parsed = limiter.rules();
+        this.rejections = new Counter[parsed.size()];
+        for (int i = 0; i < parsed.size(); i++) {
+            rejections[i] = Counter.builder("http.server.ratelimit.rejected")
+                    .description("Requests turned away with 429")
+                    .tag("rule", parsed.get(i).toString())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("http.server.ratelimit.clients", limiter, RateLimiter::size)
+                .description("Clients with rate limit state in memory")
+                .register(meterRegistry);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweep = Math.max(1, idleTimeout.toMillis());
+        this.evictor.scheduleAtFixedRate(() -> limiter.evictIdle(System.nanoTime()), sweep, sweep, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        int index = limiter.match(request.getMethod(), request.getRequestURI(), request.getContextPath().length());
+        if (index < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String apiKey = request.getHeader(apiKeyHeader);
+        // An unknown key is ignored rather than trusted, or every made-up key would get a fresh bucket
+        boolean keyed = apiKey != null && apiKeys.contains(apiKey);
+        long result = limiter.tryAcquire(keyed ? apiKey : request.getRemoteAddr(), keyed, index, System.nanoTime());
+
+        RateLimitRule rule = limiter.rule(index);
+        response.setIntHeader(LIMIT_HEADER, rule.capacity());
+        if (result >= 0) {
+            response.setIntHeader(REMAINING_HEADER, (int) result);
+            response.setIntHeader(RESET_HEADER, seconds(rule.refillNanos(result)));
+            filterChain.doFilter(request, response);
+            return;
+        }
+        int retryAfter = seconds(-1 - result);
+        rejections[index].increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setIntHeader(REMAINING_HEADER, 0);
+        response.setIntHeader(RESET_HEADER, retryAfter);
+        response.setIntHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(REJECTED_BODY);
+    }
+
+    RateLimiter limiter() {
+        return limiter;
+    }
+
+    private static int seconds(long nanos) {
+        return (int) Math.min(Integer.MAX_VALUE, (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+}
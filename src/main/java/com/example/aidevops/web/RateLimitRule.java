@@ -0,0 +1,135 @@
+package com.example.aidevops.web;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One configured limit, written {@code METHOD PATTERN=CAPACITY/PERIOD}, e.g.
+ * {@code POST /api/users/**=30/1m}: bursts of up to 30 requests, refilled at 30 per
+ * minute. The method may be {@code *}. Patterns are an exact path, or a prefix
+ * followed by {@code /*} (one more segment) or {@code /**} (any depth), which keeps
+ * matching free of allocation.
+ * <p>
+ * Buckets are kept in GCRA form: one "theoretical arrival time" per client and
+ * rule, advanced by a compare-and-set.
+ */
+final class RateLimitRule {
+
+    private enum Match {
+        EXACT, ONE_SEGMENT, ANY_DEPTH
+    }
+
+    private final String spec;
+    private final String method;
+    private final String prefix;
+    private final Match match;
+    private final int capacity;
+    private final Duration period;
+    private final long emissionNanos;
+    private final long burstNanos;
+
+    private RateLimitRule(String spec, String method, String prefix, Match match, int capacity, Duration period) {
+        this.spec = spec;
+        this.method = method;
+        this.prefix = prefix;
+        this.match = match;
+        this.capacity = capacity;
+        this.period = period;
+        this.emissionNanos = Math.max(1, period.toNanos() / capacity);
+        this.burstNanos = emissionNanos * capacity;
+    }
+
+    static RateLimitRule parse(String spec) {
+        String trimmed = spec.trim();
+        int space = trimmed.indexOf(' ');
+        int equals = trimmed.lastIndexOf('=');
+        int slash = trimmed.lastIndexOf('/');
+        if (space < 0 || equals < space || slash < equals) {
+            throw new IllegalArgumentException("Rate limit rule must look like 'POST /api/users/**=30/1m': " + spec);
+        }
+        String method = trimmed.substring(0, space).trim().toUpperCase();
+        String pattern = trimmed.substring(space + 1, equals).trim();
+        int capacity;
+        try {
+            capacity = Integer.parseInt(trimmed.substring(equals + 1, slash).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid capacity in rate limit rule: " + spec);
+        }
+        Duration period = DurationStyle.detectAndParse(trimmed.substring(slash + 1).trim());
+        if (capacity < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit capacity and period must be positive: " + spec);
+        }
+
+        Match match = Match.EXACT;
+        String prefix = pattern;
+        if (pattern.endsWith("/**")) {
+            match = Match.ANY_DEPTH;
+            prefix = pattern.substring(0, pattern.length() - 3);
+        } else if (pattern.endsWith("/*")) {
+            match = Match.ONE_SEGMENT;
+            prefix = pattern.substring(0, pattern.length() - 2);
+        }
+        if (!prefix.startsWith("/") || prefix.contains("*")) {
+            throw new IllegalArgumentException("Unsupported pattern in rate limit rule: " + spec);
+        }
+        return new RateLimitRule(trimmed, method.equals("*") ? null : method, prefix, match, capacity, period);
+    }
+
+    /**
+     * Whether the rule applies to {@code uri}, read from {@code offset} on (past the context path).
+     */
+    boolean matches(String requestMethod, String uri, int offset) {
+        if (method != null && !method.equals(requestMethod)) {
+            return false;
+        }
+        if (!uri.startsWith(prefix, offset)) {
+            return false;
+        }
+        int end = offset + prefix.length();
+        return switch (match) {
+            case EXACT -> uri.length() == end;
+            case ANY_DEPTH -> uri.length() == end || uri.charAt(end) == '/';
+            case ONE_SEGMENT -> uri.length() > end + 1 && uri.charAt(end) == '/' && uri.indexOf('/', end + 1) < 0;
+        };
+    }
+
+    /**
+     * Takes one token from the bucket in {@code slot}. Returns the tokens left when
+     * allowed, or {@code -1 - nanos} where {@code nanos} is the wait until the next token.
+     */
+    long tryConsume(AtomicLongArray arrivals, int slot, long now) {
+        while (true) {
+            long arrival = arrivals.get(slot);
+            long next = Math.max(arrival, now) + emissionNanos;
+            long backlog = next - now;
+            if (backlog > burstNanos) {
+                return -1 - (backlog - burstNanos);
+            }
+            if (arrivals.compareAndSet(slot, arrival, next)) {
+                return (burstNanos - backlog) / emissionNanos;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until a bucket with {@code remaining} tokens is full again.
+     */
+    long refillNanos(long remaining) {
+        return (capacity - remaining) * emissionNanos;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    Duration period() {
+        return period;
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
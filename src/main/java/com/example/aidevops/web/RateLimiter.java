@@ -0,0 +1,101 @@
+package com.example.aidevops.web;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-client token buckets for a fixed list of rules. Each client has one slot per
+ * rule, updated with compare-and-set, so deciding for a known client takes no lock
+ * and allocates nothing. Clients idle for longer than any bucket takes to refill are
+ * evicted by the periodic sweep; their buckets were full, so nothing is lost. While the
+ * table is full, new clients share a single overflow bucket set until a sweep frees space.
+ */
+final class RateLimiter {
+
+    private final RateLimitRule[] rules;
+    private final long idleNanos;
+    private final int maxClients;
+    // API keys and addresses are kept apart so a header cannot drain someone else's address bucket
+    private final ConcurrentHashMap<String, ClientBuckets> apiKeys = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ClientBuckets> addresses = new ConcurrentHashMap<>();
+    private final ClientBuckets overflow;
+
+    RateLimiter(List<RateLimitRule> rules, long idleNanos, int maxClients) {
+        this.rules = rules.toArray(new RateLimitRule[0]);
+        long longestRefill = rules.stream().mapToLong(rule -> rule.period().toNanos()).max().orElse(0);
+        this.idleNanos = Math.max(idleNanos, longestRefill);
+        this.maxClients = maxClients;
+        this.overflow = new ClientBuckets(this.rules.length, Long.MIN_VALUE);
+    }
+
+    /**
+     * Index of the first rule matching the request, or -1.
+     */
+    int match(String method, String uri, int offset) {
+        for (int i = 0; i < rules.length; i++) {
+            if (rules[i].matches(method, uri, offset)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    RateLimitRule rule(int index) {
+        return rules[index];
+    }
+
+    List<RateLimitRule> rules() {
+        return List.of(rules);
+    }
+
+    /**
+     * Same result as {@link RateLimitRule#tryConsume}, for the given client's bucket.
+     */
+    long tryAcquire(String client, boolean apiKey, int rule, long now) {
+        ConcurrentHashMap<String, ClientBuckets> clients = apiKey ? apiKeys : addresses;
+        ClientBuckets buckets = clients.get(client);
+        if (buckets == null) {
+            buckets = register(clients, client, now);
+        }
+        buckets.lastSeen = now;
+        return rules[rule].tryConsume(buckets.arrivals, rule, now);
+    }
+
+    /**
+     * Drops clients that have been idle long enough for all their buckets to be full.
+     */
+    int evictIdle(long now) {
+        int before = size();
+        apiKeys.values().removeIf(buckets -> now - buckets.lastSeen > idleNanos);
+        addresses.values().removeIf(buckets -> now - buckets.lastSeen > idleNanos);
+        return before - size();
+    }
+
+    int size() {
+        return apiKeys.size() + addresses.size();
+    }
+
+    private ClientBuckets register(ConcurrentHashMap<String, ClientBuckets> clients, String client, long now) {
+        if (size() >= maxClients) {
+            // No inline sweep: scanning the whole table for every new client is what a flood of clients would exploit
+            return overflow;
+        }
+        return clients.computeIfAbsent(client, key -> new ClientBuckets(rules.length, now));
+    }
+
+    private static final class ClientBuckets {
+
+        final AtomicLongArray arrivals;
+        volatile long lastSeen;
+
+        ClientBuckets(int rules, long now) {
+            this.arrivals = new AtomicLongArray(rules);
+            for (int i = 0; i < rules; i++) {
+                // Earlier than any clock reading, i.e. a full bucket
+                arrivals.set(i, Long.MIN_VALUE);
+            }
+            this.lastSeen = now;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.aidevops.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Separate bounded pools for interactive and bulk request work. Handlers that can
+ * run long hand their work to the pool of the request's class with async servlet
+ * processing, so a batch burst queues behind other bulk work instead of delaying
+ * list queries. Streaming bodies such as the export stay on the default async
+ * executor (virtual threads). Requests are bulk when they match a configured route or
+ * send {@code X-Request-Class: bulk}; a header can only demote, never promote.
+ * A full queue is refused with TaskRejectedException (503).
+ */
+@Component
+public class WorkloadExecutors {
+
+    public enum RequestClass {
+        INTERACTIVE, BULK
+    }
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private final String classHeader;
+    private final List<String[]> bulkRoutes;
+    private final Map<RequestClass, ThreadPoolTaskExecutor> executors = new EnumMap<>(RequestClass.class);
+
+    public WorkloadExecutors(@Value("${app.workload.class-header:X-Request-Class}") String classHeader,
+                             @Value("${app.workload.bulk-routes:POST /api/users/batch}") List<String> bulkRoutes,
+                             @Value("${app.workload.interactive.threads:16}") int interactiveThreads,
+                             @Value("${app.workload.interactive.queue-capacity:100}") int interactiveQueue,
+                             @Value("${app.workload.bulk.threads:4}") int bulkThreads,
+                             @Value("${app.workload.bulk.queue-capacity:20}") int bulkQueue,
+                             MeterRegistry meterRegistry) {
+        this.classHeader = classHeader;
+        this.bulkRoutes = bulkRoutes.stream().map(WorkloadExecutors::parseRoute).toList();
+        executors.put(RequestClass.INTERACTIVE, createExecutor(RequestClass.INTERACTIVE, interactiveThreads,
+                interactiveQueue, Thread.NORM_PRIORITY, meterRegistry));
+        // Priority is only a scheduling hint to the OS, the separate pool is what isolates the work
+        executors.put(RequestClass.BULK, createExecutor(RequestClass.BULK, bulkThreads, bulkQueue,
+                Thread.MIN_PRIORITY, meterRegistry));
+    }
+
+    private static String[] parseRoute(String route) {
+        String[] parts = route.trim().split("\\s+");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Bulk route must look like 'POST /api/users/batch': " + route);
+        }
+        parts[0] = parts[0].toUpperCase();
+        return parts;
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(RequestClass requestClass, int threads, int queueCapacity,
+                                                         int priority, MeterRegistry meterRegistry) {
+        String name = requestClass.name().toLowerCase();
+        Timer wait = Timer.builder("http.server.workload.wait")
+                .description("Time request work spent queued before a worker picked it up")
+                .tag("class", name)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("http.server.workload.rejected")
+                .description("Request work refused because the queue was full")
+                .tag("class", name)
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-request-");
+        executor.setThreadPriority(priority);
+        executor.setDaemon(true);
+        executor.setTaskDecorator(task -> {
+            long queued = System.nanoTime();
+            return () -> {
+                wait.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+                task.run();
+            };
+        });
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("The " + name + " request queue is full");
+        });
+        executor.initialize();
+
+        Gauge.builder("http.server.workload.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Request work waiting for a worker")
+                .tag("class", name)
+                .register(meterRegistry);
+        Gauge.builder("http.server.workload.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Workers currently running request work")
+                .tag("class", name)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    public RequestClass classify(HttpServletRequest request) {
+        if ("bulk".equalsIgnoreCase(request.getHeader(classHeader))) {
+            return RequestClass.BULK;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String[] route : bulkRoutes) {
+            if (route[0].equals(request.getMethod()) && PATHS.match(route[1], path)) {
+                return RequestClass.BULK;
+            }
+        }
+        return RequestClass.INTERACTIVE;
+    }
+
+    public AsyncTaskExecutor executor(RequestClass requestClass) {
+        return executors.get(requestClass);
+    }
+
+    /**
+     * Runs {@code work} on the pool for the request's class; the request thread is
+     * released until it completes.
+     */
+    public <T> WebAsyncTask<T> submit(HttpServletRequest request, Callable<T> work) {
+        return new WebAsyncTask<>(null, executor(classify(request)), work);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+}
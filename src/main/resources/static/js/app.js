@@ -1,51 +1,241 @@
 // API Base URL
 const API_BASE_URL = '/api/users';
+const PAGE_SIZE = 200;
+
+// Virtual scrolling: only rows in view (plus overscan) exist in the DOM
+const DEFAULT_ROW_HEIGHT = 49;
+const OVERSCAN = 10;
 
 // DOM Elements
 const userForm = document.getElementById('userForm');
 const usersTable = document.getElementById('usersTable');
 const usersTableBody = document.getElementById('usersTableBody');
+const usersViewport = document.getElementById('usersViewport');
+const emptyDiv = document.getElementById('empty');
 const loadingDiv = document.getElementById('loading');
 const errorDiv = document.getElementById('error');
 
 // Application State
 let users = [];
 let editingUserId = null;
+let syncVersion = null;
+let changeStream = null;
+let nextCursor = null;
+let loadingMore = null;
+
+// Recycled row nodes and the spacers standing in for rows out of view
+const rowPool = [];
+const topSpacer = createSpacerRow();
+const bottomSpacer = createSpacerRow();
+let rowHeight = DEFAULT_ROW_HEIGHT;
+let renderScheduled = false;
 
 // Initialize the application
 document.addEventListener('DOMContentLoaded', function() {
-    loadUsers();
+    if (!hydrateUsers()) {
+        loadUsers();
+    }
     setupEventListeners();
 });
 
 // Setup event listeners
 function setupEventListeners() {
     userForm.addEventListener('submit', handleFormSubmit);
+    usersViewport.addEventListener('scroll', scheduleRender, { passive: true });
+    window.addEventListener('resize', scheduleRender);
+    
+    // Rows are recycled, so their buttons are handled here rather than per row
+    usersTableBody.addEventListener('click', function(event) {
+        const button = event.target.closest('button[data-action]');
+        if (!button) {
+            return;
+        }
+        const userId = Number(button.closest('tr').dataset.id);
+        if (button.dataset.action === 'edit') {
+            editUser(userId);
+        } else {
+            deleteUser(userId);
+        }
+    });
+}
+
+// Render the first page embedded by the server; later pages load while scrolling
+function hydrateUsers() {
+    const initialUsers = document.getElementById('initial-users');
+    if (!initialUsers) {
+        return false;
+    }
+    
+    const page = JSON.parse(initialUsers.textContent);
+    syncVersion = initialUsers.dataset.version;
+    initialUsers.remove();
+    users = page.items;
+    nextCursor = page.nextCursor;
+    showLoading(false);
+    renderUsersTable();
+    
+    subscribeToChanges();
+    return true;
 }
 
-// Load all users from the API
+// Load the first page of users from the API; later pages load while scrolling
 async function loadUsers() {
     try {
         showLoading(true);
         hideError();
         
-        const response = await fetch(API_BASE_URL);
-        
-        if (!response.ok) {
-            throw new Error(`HTTP error! status: ${response.status}`);
-        }
-        
-        users = await response.json();
-        renderUsersTable();
+        // Take the version first so changes made while the pages load are picked up by the next sync
+        syncVersion = (await fetchChanges(null)).version;
+        subscribeToChanges();
+        const page = await fetchUsersPage(null);
+        users = page.items;
+        nextCursor = page.nextCursor;
         showLoading(false);
+        renderUsersTable();
         
     } catch (error) {
-        console.error('Error loading users:', error);
-        showError('Failed to load users. Please try again.');
-        showLoading(false);
+        handleLoadError(error);
+    }
+}
+
+function loadMoreUsers() {
+    if (loadingMore || !nextCursor) {
+        return;
+    }
+    
+    const cursor = nextCursor;
+    loadingMore = fetchUsersPage(cursor)
+        .then(page => {
+            // The list was reloaded while this page was in flight
+            if (nextCursor !== cursor) {
+                return;
+            }
+            // A sync may already have added some of these users
+            page.items.forEach(user => {
+                const index = findUserIndex(user.id);
+                if (index < 0) {
+                    users.splice(-index - 1, 0, user);
+                }
+            });
+            nextCursor = page.nextCursor;
+            scheduleRender();
+        })
+        .catch(handleLoadError)
+        .finally(() => {
+            loadingMore = null;
+        });
+}
+
+async function fetchUsersPage(cursor) {
+    const query = cursor ? `?limit=${PAGE_SIZE}&cursor=${encodeURIComponent(cursor)}` : `?limit=${PAGE_SIZE}`;
+    const response = await fetch(API_BASE_URL + query);
+    
+    if (!response.ok) {
+        throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    
+    return response.json();
+}
+
+async function fetchChanges(since) {
+    const query = since ? `?since=${encodeURIComponent(since)}` : '';
+    const response = await fetch(`${API_BASE_URL}/changes${query}`);
+    
+    if (!response.ok) {
+        throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    
+    return response.json();
+}
+
+// Apply the changes made since the last sync instead of reloading the list
+async function syncUsers() {
+    if (!syncVersion) {
+        return loadUsers();
+    }
+    
+    try {
+        await applyChanges(await fetchChanges(syncVersion));
+    } catch (error) {
+        handleLoadError(error);
+    }
+}
+
+async function applyChanges(changes) {
+    if (changes.resync) {
+        return loadUsers();
+    }
+    
+    changes.deletes.forEach(removeUser);
+    changes.upserts.forEach(upsertUser);
+    syncVersion = changes.version;
+}
+
+// Receive every committed change as it happens; EventSource reconnects on its own
+// and resumes from the last event id it saw
+function subscribeToChanges() {
+    if (changeStream || !window.EventSource) {
+        return;
+    }
+    
+    changeStream = new EventSource(`${API_BASE_URL}/stream?since=${encodeURIComponent(syncVersion)}`);
+    changeStream.addEventListener('changes', event => {
+        applyChanges(JSON.parse(event.data)).catch(handleLoadError);
+    });
+}
+
+// Local edits only need an explicit sync while the change stream is down
+function syncAfterEdit() {
+    if (!changeStream || changeStream.readyState !== EventSource.OPEN) {
+        syncUsers();
+    }
+}
+
+function upsertUser(user) {
+    const index = findUserIndex(user.id);
+    if (index >= 0) {
+        users[index] = user;
+    } else {
+        // Users beyond the loaded range arrive with their page
+        if (nextCursor && users.length > 0 && user.id > users[users.length - 1].id) {
+            return;
+        }
+        users.splice(-index - 1, 0, user);
+    }
+    scheduleRender();
+}
+
+function removeUser(userId) {
+    const index = findUserIndex(userId);
+    if (index >= 0) {
+        users.splice(index, 1);
+        scheduleRender();
     }
 }
 
+// Binary search over the id-ordered users array; a miss returns -(insertion point) - 1
+function findUserIndex(userId) {
+    let low = 0;
+    let high = users.length - 1;
+    while (low <= high) {
+        const mid = (low + high) >>> 1;
+        if (users[mid].id < userId) {
+            low = mid + 1;
+        } else if (users[mid].id > userId) {
+            high = mid - 1;
+        } else {
+            return mid;
+        }
+    }
+    return -(low + 1);
+}
+
+function handleLoadError(error) {
+    console.error('Error loading users:', error);
+    showError('Failed to load users. Please try again.');
+    showLoading(false);
+}
+
 // Handle form submission
 async function handleFormSubmit(event) {
     event.preventDefault();
@@ -77,7 +267,7 @@ async function handleFormSubmit(event) {
         userForm.reset();
         editingUserId = null;
         updateFormButton();
-        loadUsers();
+        syncAfterEdit();
         
     } catch (error) {
         console.error('Error saving user:', error);
@@ -147,7 +337,7 @@ async function deleteUser(userId) {
         }
         
         showSuccess('User deleted successfully!');
-        loadUsers();
+        syncAfterEdit();
         
     } catch (error) {
         console.error('Error deleting user:', error);
@@ -211,32 +401,103 @@ function updateFormButton() {
     }
 }
 
-// Render the users table
+function scheduleRender() {
+    if (!renderScheduled) {
+        renderScheduled = true;
+        requestAnimationFrame(renderUsersTable);
+    }
+}
+
+// Render the users table: bind the rows in view to recycled <tr> nodes and size the
+// spacers for everything above and below, so the work per frame is independent of
+// the number of users
 function renderUsersTable() {
+    renderScheduled = false;
+    
     if (users.length === 0) {
         usersTable.style.display = 'none';
-        usersTableBody.innerHTML = '<tr><td colspan="5" style="text-align: center; padding: 2rem;">No users found. Add some users to get started!</td></tr>';
+        emptyDiv.style.display = loadingDiv.style.display === 'none' ? 'block' : 'none';
         return;
     }
     
     usersTable.style.display = 'table';
+    emptyDiv.style.display = 'none';
+    if (!topSpacer.parentNode) {
+        usersTableBody.append(topSpacer, bottomSpacer);
+    }
+    
+    const viewportHeight = usersViewport.clientHeight || rowHeight * 20;
+    const first = Math.min(Math.max(0, Math.floor(usersViewport.scrollTop / rowHeight) - OVERSCAN), users.length - 1);
+    const count = Math.min(users.length - first, Math.ceil(viewportHeight / rowHeight) + 2 * OVERSCAN);
+    
+    while (rowPool.length < count) {
+        const row = createUserRow();
+        rowPool.push(row);
+        usersTableBody.insertBefore(row, bottomSpacer);
+    }
+    
+    rowPool.forEach((row, i) => {
+        row.hidden = i >= count;
+        if (!row.hidden) {
+            bindUserRow(row, users[first + i], first + i);
+        }
+    });
+    
+    if (rowPool[0].offsetHeight > 0) {
+        rowHeight = rowPool[0].offsetHeight;
+    }
+    topSpacer.style.height = `${first * rowHeight}px`;
+    bottomSpacer.style.height = `${(users.length - first - count) * rowHeight}px`;
+    
+    // Fetch the next page before the user reaches the end of what is loaded
+    if (nextCursor && first + count + OVERSCAN >= users.length) {
+        loadMoreUsers();
+    }
+}
+
+function createUserRow() {
+    const row = document.createElement('tr');
+    row.className = 'user-row';
+    for (let i = 0; i < 4; i++) {
+        row.appendChild(document.createElement('td'));
+    }
     
-    usersTableBody.innerHTML = users.map(user => `
-        <tr class="fade-in">
-            <td>${user.id}</td>
-            <td>${escapeHtml(user.name)}</td>
-            <td>${escapeHtml(user.email)}</td>
-            <td>${formatDate(user.createdAt)}</td>
-            <td>
-                <button class="action-btn edit-btn" onclick="editUser(${user.id})">
-                    Edit
-                </button>
-                <button class="action-btn delete-btn" onclick="deleteUser(${user.id})">
-                    Delete
-                </button>
-            </td>
-        </tr>
-    `).join('');
+    const actions = document.createElement('td');
+    actions.append(createActionButton('edit', 'Edit'), createActionButton('delete', 'Delete'));
+    row.appendChild(actions);
+    return row;
+}
+
+function createActionButton(action, label) {
+    const button = document.createElement('button');
+    button.className = `action-btn ${action}-btn`;
+    button.dataset.action = action;
+    button.textContent = label;
+    return button;
+}
+
+function createSpacerRow() {
+    const row = document.createElement('tr');
+    row.className = 'spacer-row';
+    const cell = document.createElement('td');
+    cell.colSpan = 5;
+    row.appendChild(cell);
+    return row;
+}
+
+function bindUserRow(row, user, index) {
+    row.classList.toggle('striped', index % 2 === 1);
+    if (row.boundUser === user) {
+        return;
+    }
+    
+    row.boundUser = user;
+    row.dataset.id = user.id;
+    const cells = row.cells;
+    cells[0].textContent = user.id;
+    cells[1].textContent = user.name;
+    cells[2].textContent = user.email;
+    cells[3].textContent = formatDate(user.createdAt);
 }
 
 // Utility functions
@@ -282,12 +543,6 @@ function isValidEmail(email) {
     return emailRegex.test(email);
 }
 
-function escapeHtml(text) {
-    const div = document.createElement('div');
-    div.textContent = text;
-    return div.innerHTML;
-}
-
 function formatDate(dateString) {
     const date = new Date(dateString);
     return date.toLocaleDateString() + ' ' + date.toLocaleTimeString();
@@ -0,0 +1,54 @@
+package com.example.aidevops.cache;
+
+import com.example.aidevops.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserJsonCacheTest {
+
+    private static final byte[] JSON = "{\"id\":1,\"name\":\"Ada\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void servesHitsWithoutCallingTheLoader() throws Exception {
+        UserJsonCache cache = new UserJsonCache(true, DataSize.ofMegabytes(1), UserJsonCache.Storage.HEAP,
+                new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get(1L, id -> {
+                loads.incrementAndGet();
+                return Optional.of(cache.newEntry("\"1-0\"", JSON));
+            });
+        }
+        assertEquals(1, loads.get());
+
+        cache.onUserChanged(UserChangedEvent.deleted(1L));
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void offHeapEntriesWriteTheSameBytes() throws Exception {
+        UserJsonCache cache = new UserJsonCache(true, DataSize.ofMegabytes(1), UserJsonCache.Storage.OFF_HEAP,
+                new SimpleMeterRegistry());
+        UserJsonCache.Entry entry = cache.get(1L, id -> Optional.of(cache.newEntry("\"1-0\"", JSON))).orElseThrow();
+
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            entry.writeTo(out);
+            assertArrayEquals(JSON, out.toByteArray());
+        }
+        assertEquals(JSON.length, entry.length());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.aidevops.controller;
+
+import com.example.aidevops.model.User;
+import com.example.aidevops.repository.UserRepository;
+import com.example.aidevops.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HomeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void linksFingerprintedAssetsThatAreCachedForever() throws Exception {
+        String html = mockMvc.perform(get("/"))
+                             .andExpect(status().isOk())
+                             .andExpect(header().string("Cache-Control", "no-cache"))
+                             .andReturn().getResponse().getContentAsString();
+
+        Matcher script = Pattern.compile("src=\"(/js/app-[0-9a-f]{32}\\.js)\"").matcher(html);
+        assertTrue(script.find(), html);
+        assertTrue(Pattern.compile("href=\"/css/style-[0-9a-f]{32}\\.css\"").matcher(html).find());
+
+        mockMvc.perform(get(script.group(1)))
+               .andExpect(status().isOk())
+               .andExpect(header().string("Cache-Control", containsString("immutable")))
+               .andExpect(header().string("Cache-Control", containsString("max-age=31536000")));
+        mockMvc.perform(get("/js/app-00000000000000000000000000000000.js"))
+               .andExpect(status().isNotFound());
+        mockMvc.perform(get("/js/app.js"))
+               .andExpect(status().isOk())
+               .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void embedsTheFirstPageOfUsersUntilTheNextChange() throws Exception {
+        userRepository.deleteAll();
+        userService.createUser(new User("</script><b>Eve</b>", "eve@example.com"));
+
+        String html = mockMvc.perform(get("/")).andReturn().getResponse().getContentAsString();
+        Matcher data = Pattern.compile("<script id=\"initial-users\" type=\"application/json\" data-version=\"[^\"]+\">(.*?)</script>").matcher(html);
+        assertTrue(data.find(), html);
+        assertFalse(data.group(1).contains("<"));
+        JsonNode page = objectMapper.readTree(data.group(1));
+        assertEquals("</script><b>Eve</b>", page.get("items").get(0).get("name").asText());
+
+        String etag = mockMvc.perform(get("/")).andReturn().getResponse().getHeader("ETag");
+        userService.createUser(new User("Mallory", "mallory@example.com"));
+        String updated = mockMvc.perform(get("/").header("If-None-Match", etag))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+        assertTrue(updated.contains("mallory@example.com"));
+    }
+
+    @Test
+    void servesTheRenderedPageGzipped() throws Exception {
+        MockHttpServletResponse plain = mockMvc.perform(get("/")).andReturn().getResponse();
+        MockHttpServletResponse compressed = mockMvc.perform(get("/").header("Accept-Encoding", "gzip, br"))
+                                                    .andExpect(status().isOk())
+                                                    .andExpect(header().string("Content-Encoding", "gzip"))
+                                                    .andExpect(header().string("Vary", "Accept-Encoding"))
+                                                    .andReturn().getResponse();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getContentAsByteArray()))) {
+            assertEquals(plain.getContentAsString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        String etag = compressed.getHeader("ETag");
+        assertNotEquals(plain.getHeader("ETag"), etag);
+        mockMvc.perform(get("/").header("Accept-Encoding", "gzip").header("If-None-Match", etag))
+               .andExpect(status().isNotModified())
+               .andExpect(header().string("ETag", etag));
+    }
+
+    @Test
+    void revalidatesThePageWithItsETag() throws Exception {
+        String etag = mockMvc.perform(get("/")).andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/").header("If-None-Match", etag))
+               .andExpect(status().isNotModified());
+    }
+}
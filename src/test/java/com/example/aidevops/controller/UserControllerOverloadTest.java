@@ -0,0 +1,96 @@
+package com.example.aidevops.controller;
+
+import com.example.aidevops.web.WorkloadExecutors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saturates the interactive request pool over a real connection: MockMvc never
+ * dispatches the error of a WebAsyncTask the pool refused, a container does. The
+ * pool is only considered full once every worker runs a blocker and the queue
+ * holds nothing else.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:overloadtest",
+    "app.api.v2.r2dbc.url=r2dbc:h2:mem:///overloadtest",
+    "app.workload.interactive.threads=1",
+    "app.workload.interactive.queue-capacity=1"
+})
+class UserControllerOverloadTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private WorkloadExecutors workloads;
+
+    @Test
+    void refusesListQueriesWith503WhenThePoolIsFullButStillRevalidates() throws Exception {
+        String etag = webTestClient.get().uri("/api/users?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseHeaders().getETag();
+        assertNotNull(etag);
+
+        ThreadPoolTaskExecutor interactive =
+                (ThreadPoolTaskExecutor) workloads.executor(WorkloadExecutors.RequestClass.INTERACTIVE);
+        ThreadPoolExecutor pool = interactive.getThreadPoolExecutor();
+        WebTestClient client = webTestClient.mutate().responseTimeout(Duration.ofSeconds(10)).build();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        List<Future<?>> blockers = new ArrayList<>();
+        try {
+            // The worker may still be finishing the request above, so a first rejection does not mean every
+            // worker and queue slot holds a blocker; a list query queued behind one would wait, not get 503
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (running.get() < pool.getMaximumPoolSize() || pool.getQueue().remainingCapacity() > 0) {
+                assertTrue(System.nanoTime() < deadline, "interactive pool never filled with blockers");
+                try {
+                    blockers.add(interactive.submit(() -> {
+                        running.incrementAndGet();
+                        return release.await(30, TimeUnit.SECONDS);
+                    }));
+                } catch (TaskRejectedException full) {
+                    Thread.sleep(10);
+                }
+            }
+
+            client.get().uri("/api/users?limit=2")
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                    .expectBody().jsonPath("$.error").isEqualTo("Server is busy, retry later");
+
+            // A matching tag needs no pool slot, so revalidation keeps working under overload
+            client.get().uri("/api/users?limit=2")
+                    .ifNoneMatch(etag)
+                    .exchange()
+                    .expectStatus().isNotModified()
+                    .expectHeader().valueEquals(HttpHeaders.ETAG, etag);
+        } finally {
+            release.countDown();
+            for (Future<?> blocker : blockers) {
+                blocker.get(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.aidevops.controller;
+
+import com.example.aidevops.model.User;
+import com.example.aidevops.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        for (int i = 0; i < 7; i++) {
+            userRepository.save(new User("User " + (char) ('G' - i), "user" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void pagesForwardAndBackwardByName() throws Exception {
+        List<String> names = new ArrayList<>();
+        JsonNode page = getJson("/api/users?sort=name&limit=3");
+        assertTrue(page.get("prevCursor").isNull());
+        page.get("items").forEach(item -> names.add(item.get("name").asText()));
+
+        JsonNode second = getJson("/api/users?limit=3&cursor=" + page.get("nextCursor").asText());
+        second.get("items").forEach(item -> names.add(item.get("name").asText()));
+
+        JsonNode third = getJson("/api/users?limit=3&cursor=" + second.get("nextCursor").asText());
+        third.get("items").forEach(item -> names.add(item.get("name").asText()));
+        assertTrue(third.get("nextCursor").isNull());
+
+        assertEquals(List.of("User A", "User B", "User C", "User D", "User E", "User F", "User G"), names);
+
+        JsonNode back = getJson("/api/users?limit=3&cursor=" + second.get("prevCursor").asText());
+        assertEquals("User A", back.get("items").get(0).get("name").asText());
+        assertEquals(3, back.get("items").size());
+        assertTrue(back.get("prevCursor").isNull());
+    }
+
+    @Test
+    void pagesAfterId() throws Exception {
+        Long firstId = userRepository.findAll().get(0).getId();
+        JsonNode page = getJson("/api/users?after=" + firstId + "&limit=2");
+        assertEquals(2, page.get("items").size());
+        assertTrue(page.get("items").get(0).get("id").asLong() > firstId);
+    }
+
+    @Test
+    void getsManyUsersByIdInRequestOrder() throws Exception {
+        List<User> all = userRepository.findAll();
+        Long first = all.get(0).getId();
+        Long third = all.get(2).getId();
+        JsonNode users = getJson("/api/users?ids=" + third + "," + first + ",999999," + third);
+        assertEquals(2, users.size());
+        assertEquals(third, users.get(0).get("id").asLong());
+        assertEquals(first, users.get(1).get("id").asLong());
+    }
+
+    @Test
+    void negotiatesBinaryFormats() throws Exception {
+        User user = userRepository.findByEmail("user0@example.com").orElseThrow();
+
+        byte[] cbor = mockMvc.perform(get("/api/users/" + user.getId()).accept("application/cbor"))
+                             .andExpect(status().isOk())
+                             .andExpect(content().contentType("application/cbor"))
+                             .andReturn().getResponse().getContentAsByteArray();
+        JsonNode decoded = new ObjectMapper(new CBORFactory()).readTree(cbor);
+        assertEquals("user0@example.com", decoded.get("email").asText());
+        // Spring MVC's own CBOR converter, with ISO dates like the JSON output
+        assertTrue(decoded.get("createdAt").isTextual());
+
+        performAndDispatch(get("/api/users?limit=3").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"));
+
+        byte[] protobuf = mockMvc.perform(get("/api/users/" + user.getId()).accept("application/x-protobuf"))
+                                 .andExpect(status().isOk())
+                                 .andReturn().getResponse().getContentAsByteArray();
+        CodedInputStream in = CodedInputStream.newInstance(protobuf);
+        assertEquals(user.getId(), readInt64Field(in, 1));
+        assertEquals("User G", readStringField(in, 2));
+        assertEquals("user0@example.com", readStringField(in, 3));
+
+        byte[] list = performAndDispatch(get("/api/users").accept("application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = performAndDispatch(get("/api/users"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(list.length < json.length());
+    }
+
+    private static long readInt64Field(CodedInputStream in, int field) throws Exception {
+        assertEquals(field, WireFormat.getTagFieldNumber(in.readTag()));
+        return in.readInt64();
+    }
+
+    private static String readStringField(CodedInputStream in, int field) throws Exception {
+        assertEquals(field, WireFormat.getTagFieldNumber(in.readTag()));
+        return in.readString();
+    }
+
+    @Test
+    void rejectsMalformedCursor() throws Exception {
+        performAndDispatch(get("/api/users?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsAfterWithNonIdSortAndMalformedLimit() throws Exception {
+        mockMvc.perform(get("/api/users?after=1&sort=name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("'after' only supports sort=id; use 'cursor' to page by name"));
+        mockMvc.perform(get("/api/users?limit=ten"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid value for parameter 'limit'"));
+    }
+
+    @Test
+    void exportsUsersAsNdjson() throws Exception {
+        MvcResult async = mockMvc.perform(get("/api/users/export"))
+                                 .andExpect(request().asyncStarted())
+                                 .andReturn();
+        String body = mockMvc.perform(asyncDispatch(async))
+                             .andExpect(status().isOk())
+                             .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                             .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(7, lines.length);
+        assertTrue(body.endsWith("\n"));
+        for (String line : lines) {
+            assertTrue(objectMapper.readTree(line).has("email"));
+        }
+    }
+
+    @Test
+    void createsUsersInBatchWithPerItemResults() throws Exception {
+        String body = "[{\"name\":\"Batch One\",\"email\":\"batch1@example.com\"},"
+                + "{\"name\":\"\",\"email\":\"batch2@example.com\"},"
+                + "{\"name\":\"Existing\",\"email\":\"user0@example.com\"},"
+                + "{\"name\":\"Batch Dup\",\"email\":\"batch1@example.com\"}]";
+        String response = performAndDispatch(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode results = objectMapper.readTree(response);
+        assertEquals(201, results.get(0).get("status").asInt());
+        assertTrue(results.get(0).get("id").isNumber());
+        assertEquals(400, results.get(1).get("status").asInt());
+        assertEquals(409, results.get(2).get("status").asInt());
+        assertEquals(409, results.get(3).get("status").asInt());
+        assertEquals(8, userRepository.count());
+    }
+
+    @Test
+    void createsUsersFromNdjson() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            body.append("{\"name\":\"Bulk ").append(i).append("\",\"email\":\"bulk").append(i).append("@example.com\"}\n");
+        }
+        performAndDispatch(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.toString()))
+                .andExpect(status().isOk());
+        assertEquals(127, userRepository.count());
+    }
+
+    @Test
+    void runsListAndBatchWorkOnSeparatePools() throws Exception {
+        Timer interactive = meterRegistry.get("http.server.workload.wait").tag("class", "interactive").timer();
+        Timer bulk = meterRegistry.get("http.server.workload.wait").tag("class", "bulk").timer();
+        long interactiveBefore = interactive.count();
+        long bulkBefore = bulk.count();
+
+        performAndDispatch(get("/api/users?limit=2")).andExpect(status().isOk());
+        assertEquals(interactiveBefore + 1, interactive.count());
+
+        performAndDispatch(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Pooled\",\"email\":\"pooled@example.com\"}]"))
+                .andExpect(status().isOk());
+        performAndDispatch(get("/api/users?limit=2").header("X-Request-Class", "bulk")).andExpect(status().isOk());
+        assertEquals(bulkBefore + 2, bulk.count());
+        assertEquals(interactiveBefore + 1, interactive.count());
+    }
+
+    @Test
+    void updatesAndDeletesWithSingleStatements() throws Exception {
+        User user = userRepository.findByEmail("user0@example.com").orElseThrow();
+        String response = mockMvc.perform(put("/api/users/" + user.getId())
+                                         .contentType(MediaType.APPLICATION_JSON)
+                                         .content("{\"name\":\"Renamed\",\"email\":\"renamed@example.com\"}"))
+                                 .andExpect(status().isOk())
+                                 .andReturn().getResponse().getContentAsString();
+        JsonNode updated = objectMapper.readTree(response);
+        assertEquals("Renamed", updated.get("name").asText());
+        assertEquals("renamed@example.com", updated.get("email").asText());
+        assertFalse(updated.get("createdAt").isNull());
+
+        mockMvc.perform(put("/api/users/" + user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Clash\",\"email\":\"user1@example.com\"}"))
+               .andExpect(status().isConflict());
+        mockMvc.perform(put("/api/users/999999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ghost\",\"email\":\"ghost@example.com\"}"))
+               .andExpect(status().isNotFound());
+
+        mockMvc.perform(delete("/api/users/" + user.getId())).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/users/" + user.getId())).andExpect(status().isNotFound());
+        assertEquals(6, userRepository.count());
+    }
+
+    @Test
+    void conditionalRequestsUseEntityAndCollectionTags() throws Exception {
+        User user = userRepository.findByEmail("user0@example.com").orElseThrow();
+        String etag = mockMvc.perform(get("/api/users/" + user.getId()))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        mockMvc.perform(get("/api/users/" + user.getId()).header("If-None-Match", etag))
+               .andExpect(status().isNotModified());
+
+        String listTag = performAndDispatch(get("/api/users?limit=2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        // Answered on the request thread, without a pool slot
+        mockMvc.perform(get("/api/users?limit=2").header("If-None-Match", listTag))
+               .andExpect(request().asyncNotStarted())
+               .andExpect(status().isNotModified());
+
+        String updatedTag = mockMvc.perform(put("/api/users/" + user.getId())
+                                           .header("If-Match", etag)
+                                           .contentType(MediaType.APPLICATION_JSON)
+                                           .content("{\"name\":\"Tagged\",\"email\":\"tagged@example.com\"}"))
+                                   .andExpect(status().isOk())
+                                   .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, updatedTag);
+
+        mockMvc.perform(put("/api/users/" + user.getId())
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Stale\",\"email\":\"stale@example.com\"}"))
+               .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/users/" + user.getId()).header("If-None-Match", etag))
+               .andExpect(status().isOk());
+        performAndDispatch(get("/api/users?limit=2").header("If-None-Match", listTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void eachFormatHasItsOwnEntityTag() throws Exception {
+        User user = userRepository.findByEmail("user0@example.com").orElseThrow();
+        String json = mockMvc.perform(get("/api/users/" + user.getId()))
+                             .andReturn().getResponse().getHeader("ETag");
+        String cbor = mockMvc.perform(get("/api/users/" + user.getId()).accept(MediaType.APPLICATION_CBOR))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getHeader("ETag");
+        assertEquals(json.substring(0, json.length() - 1) + "-cbor\"", cbor);
+
+        // A tag for one format never revalidates another
+        mockMvc.perform(get("/api/users/" + user.getId()).accept(MediaType.APPLICATION_CBOR).header("If-None-Match", json))
+               .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/" + user.getId()).accept(MediaType.APPLICATION_CBOR).header("If-None-Match", cbor))
+               .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/users/" + user.getId()).header("If-None-Match", cbor))
+               .andExpect(status().isOk());
+
+        String jsonList = performAndDispatch(get("/api/users?limit=2"))
+                .andReturn().getResponse().getHeader("ETag");
+        String protobufList = performAndDispatch(get("/api/users?limit=2").accept("application/x-protobuf"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(jsonList, protobufList);
+        mockMvc.perform(get("/api/users?limit=2").accept("application/x-protobuf").header("If-None-Match", protobufList))
+               .andExpect(status().isNotModified());
+        performAndDispatch(get("/api/users?limit=2").accept("application/x-protobuf").header("If-None-Match", jsonList))
+                .andExpect(status().isOk());
+
+        // Any format's tag is a valid precondition for an update
+        mockMvc.perform(put("/api/users/" + user.getId())
+                        .header("If-Match", cbor)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Tagged\",\"email\":\"tagged@example.com\"}"))
+               .andExpect(status().isOk());
+    }
+
+    @Test
+    void reportsNetChangesSinceAVersion() throws Exception {
+        JsonNode start = getJson("/api/users/changes");
+        assertTrue(start.get("resync").asBoolean());
+        String since = start.get("version").asText();
+
+        List<User> existing = userRepository.findAll();
+        mockMvc.perform(put("/api/users/" + existing.get(0).getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Renamed\",\"email\":\"renamed@example.com\"}"))
+               .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/users/" + existing.get(1).getId())).andExpect(status().isOk());
+        String created = mockMvc.perform(post("/api/users")
+                                                 .contentType(MediaType.APPLICATION_JSON)
+                                                 .content("{\"name\":\"Fresh\",\"email\":\"fresh@example.com\"}"))
+                                .andReturn().getResponse().getContentAsString();
+        long createdId = objectMapper.readTree(created).get("id").asLong();
+        mockMvc.perform(delete("/api/users/" + createdId)).andExpect(status().isOk());
+
+        JsonNode changes = getJson("/api/users/changes?since=" + since);
+        assertFalse(changes.get("resync").asBoolean());
+        assertEquals(1, changes.get("upserts").size());
+        assertEquals("Renamed", changes.get("upserts").get(0).get("name").asText());
+        assertEquals(List.of(existing.get(1).getId(), createdId),
+                     List.of(changes.get("deletes").get(0).asLong(), changes.get("deletes").get(1).asLong()));
+
+        JsonNode none = getJson("/api/users/changes?since=" + changes.get("version").asText());
+        assertEquals(0, none.get("upserts").size());
+        assertEquals(0, none.get("deletes").size());
+        assertTrue(getJson("/api/users/changes?since=0.0").get("resync").asBoolean());
+    }
+
+    @Test
+    void streamsCommittedChangesToSubscribers() throws Exception {
+        String since = getJson("/api/users/changes").get("version").asText();
+        MvcResult stream = mockMvc.perform(get("/api/users/stream").header("Last-Event-ID", since))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        mockMvc.perform(post("/api/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Streamed\",\"email\":\"streamed@example.com\"}"))
+               .andExpect(status().isCreated());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        String events = stream.getResponse().getContentAsString();
+        while (!events.contains("streamed@example.com") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            events = stream.getResponse().getContentAsString();
+        }
+        assertTrue(events.contains("event:changes"), events);
+        assertTrue(events.contains("streamed@example.com"), events);
+        assertTrue(events.indexOf("id:" + since) < events.indexOf("streamed@example.com"));
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        String body = performAndDispatch(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    /**
+     * Performs the request and, for handlers that hand their work to a workload pool,
+     * the async dispatch that writes the response.
+     */
+    private ResultActions performAndDispatch(RequestBuilder builder) throws Exception {
+        ResultActions actions = mockMvc.perform(builder);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.aidevops.controller;
+
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.model.User;
+import com.example.aidevops.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cold single-user lookups over a real connection, where request threads are
+ * virtual: a miss must never wait for its batch while pinned to a carrier, or the
+ * batch query can starve. MockMvc runs on platform threads and cannot show this.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:lookuptest",
+    "app.api.v2.r2dbc.url=r2dbc:h2:mem:///lookuptest",
+    "app.users.batch-loader.timeout=3s"
+})
+class UserLookupConnectionTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentColdLookupsAreAnsweredWithinTheBatchTimeout() throws Exception {
+        userRepository.deleteAll();
+        // More concurrent misses than carriers, so a pinned wait would leave no carrier for the query
+        int users = Runtime.getRuntime().availableProcessors() * 2 + 2;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            ids.add(userRepository.save(new User("Cold " + i, "cold" + i + "@example.com")).getId());
+        }
+
+        WebTestClient client = webTestClient.mutate().responseTimeout(Duration.ofSeconds(10)).build();
+        ExecutorService callers = Executors.newFixedThreadPool(users);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<UserSummary>> lookups = new ArrayList<>();
+            for (Long id : ids) {
+                lookups.add(callers.submit(() -> {
+                    start.await();
+                    return client.get().uri("/api/users/" + id)
+                            .exchange()
+                            .expectStatus().isOk()
+                            .expectBody(UserSummary.class).returnResult().getResponseBody();
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < users; i++) {
+                assertEquals("cold" + i + "@example.com", lookups.get(i).get(15, TimeUnit.SECONDS).email());
+            }
+        } finally {
+            callers.shutdown();
+        }
+    }
+}
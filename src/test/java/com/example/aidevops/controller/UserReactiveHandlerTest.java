@@ -0,0 +1,145 @@
+package com.example.aidevops.controller;
+
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.model.User;
+import com.example.aidevops.repository.UserRepository;
+import com.example.aidevops.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises /api/v2/users over a real connection, since the reactive servlet is
+ * not part of MockMvc. Uses its own database so R2DBC and JPA agree on the schema.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:reactivetest",
+    "app.api.v2.r2dbc.url=r2dbc:h2:mem:///reactivetest"
+})
+class UserReactiveHandlerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(new User("Reactive " + i, "reactive" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void streamsUsersAsJsonArrayOrNdjson() {
+        List<UserSummary> users = webTestClient.get().uri("/api/v2/users")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBodyList(UserSummary.class).returnResult().getResponseBody();
+        assertEquals(5, users.size());
+        assertEquals("reactive0@example.com", users.get(0).email());
+
+        String ndjson = webTestClient.get().uri("/api/v2/users?after=" + users.get(1).id() + "&limit=2")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertEquals(2, ndjson.strip().split("\n").length);
+        assertTrue(ndjson.contains("reactive2@example.com"));
+    }
+
+    @Test
+    void createUpdateAndDeleteMatchTheMvcApi() {
+        // Cached by the Hibernate query cache, which must notice the R2DBC insert
+        assertFalse(userRepository.existsByEmail("flux@example.com"));
+        UserSummary created = webTestClient.post().uri("/api/v2/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Flux", "email", "flux@example.com"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody(UserSummary.class).returnResult().getResponseBody();
+        // Written over R2DBC, visible to the JPA side
+        assertEquals("Flux", userService.getUserById(created.id()).orElseThrow().name());
+        assertTrue(userRepository.existsByEmail("flux@example.com"));
+
+        String etag = "\"" + created.id() + "-" + created.version() + "\"";
+        webTestClient.get().uri("/api/v2/users/" + created.id())
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.post().uri("/api/v2/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Again", "email", "flux@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody(String.class).isEqualTo("Error: User with email flux@example.com already exists");
+
+        webTestClient.put().uri("/api/v2/users/" + created.id())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, etag)
+                .bodyValue(Map.of("name", "Mono", "email", "flux@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Mono")
+                // Read back after the UPDATE, so the bumped version is the stored one
+                .jsonPath("$.version").isEqualTo(created.version() + 1);
+        // The cached lookup was invalidated by the change event
+        assertEquals("Mono", userService.getUserById(created.id()).orElseThrow().name());
+
+        webTestClient.put().uri("/api/v2/users/" + created.id())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, etag)
+                .bodyValue(Map.of("name", "Stale", "email", "flux@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        webTestClient.delete().uri("/api/v2/users/" + created.id()).exchange().expectStatus().isOk();
+        webTestClient.delete().uri("/api/v2/users/" + created.id()).exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/api/v2/users/" + created.id()).exchange().expectStatus().isNotFound();
+        assertTrue(userService.getUserById(created.id()).isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidInputLikeTheMvcApi() {
+        webTestClient.post().uri("/api/v2/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "", "email", "not-an-email"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Name is required")
+                .jsonPath("$.email").isEqualTo("Email should be valid");
+
+        webTestClient.post().uri("/api/v2/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{not json")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").exists();
+
+        webTestClient.get().uri("/api/v2/users/abc")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.aidevops.json;
+
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.protobuf.UserProtobufHttpMessageConverter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding a page of users with each negotiable format through the converter the
+ * application uses for it, and decoding it again the way a client would. The
+ * encoded size of every format is printed during setup; run with {@code -prof gc}
+ * to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserFormatBenchmark {
+
+    private static final TypeReference<List<UserSummary>> USER_LIST = new TypeReference<>() { };
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    @Param({"20", "200"})
+    public int users;
+
+    private GenericHttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private ObjectMapper reader;
+    private List<UserSummary> page;
+    private byte[] encoded;
+    private final BufferedOutputMessage output = new BufferedOutputMessage();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // The application ObjectMapper writes dates as ISO strings; the builder alone would not
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        switch (format) {
+            case "json" -> {
+                reader = builder.build();
+                converter = new UserJsonHttpMessageConverter(new UserJsonWriter(reader), reader);
+                mediaType = MediaType.APPLICATION_JSON;
+            }
+            case "cbor" -> {
+                reader = builder.factory(new CBORFactory()).build();
+                converter = new MappingJackson2CborHttpMessageConverter(reader);
+                mediaType = MediaType.APPLICATION_CBOR;
+            }
+            case "smile" -> {
+                reader = builder.factory(new SmileFactory()).build();
+                converter = new MappingJackson2SmileHttpMessageConverter(reader);
+                mediaType = new MediaType("application", "x-jackson-smile");
+            }
+            case "protobuf" -> {
+                converter = new UserProtobufHttpMessageConverter();
+                mediaType = UserProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+            }
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        }
+
+        page = new ArrayList<>(users);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 6, 30, 12, 0, 0, 123_456_789);
+        for (int i = 0; i < users; i++) {
+            page.add(new UserSummary(i + 1L, "User " + i, "user" + i + "@example.com", createdAt.plusSeconds(i), 1L));
+        }
+        encoded = encode();
+        System.out.printf("%n%s: %d users encode to %d bytes%n", format, users, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        output.reset();
+        converter.write(page, USER_LIST.getType(), mediaType, output);
+        return output.body.toByteArray();
+    }
+
+    @Benchmark
+    public List<UserSummary> decode() throws IOException {
+        return reader != null ? reader.readValue(encoded, USER_LIST) : decodeProtobuf(encoded);
+    }
+
+    // UserList { repeated User users = 1; } as declared in users.proto
+    private static List<UserSummary> decodeProtobuf(byte[] bytes) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(bytes);
+        List<UserSummary> result = new ArrayList<>();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            int limit = in.pushLimit(in.readRawVarint32());
+            Long id = null;
+            String name = null;
+            String email = null;
+            LocalDateTime createdAt = null;
+            Long version = null;
+            for (int field = in.readTag(); field != 0; field = in.readTag()) {
+                switch (WireFormat.getTagFieldNumber(field)) {
+                    case 1 -> id = in.readInt64();
+                    case 2 -> name = in.readString();
+                    case 3 -> email = in.readString();
+                    case 4 -> createdAt = LocalDateTime.parse(in.readString());
+                    case 5 -> version = in.readInt64();
+                    default -> in.skipField(field);
+                }
+            }
+            in.popLimit(limit);
+            result.add(new UserSummary(id, name, email, createdAt, version));
+        }
+        return result;
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(32 * 1024);
+        private final HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            body.reset();
+            headers.clear();
+        }
+
+        @Override
+        public ByteArrayOutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
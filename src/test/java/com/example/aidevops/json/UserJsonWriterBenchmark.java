@@ -0,0 +1,101 @@
+package com.example.aidevops.json;
+
+import com.example.aidevops.dto.UserSummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a page of users with {@link UserJsonWriter} versus the ObjectMapper's
+ * reflective bean serializer, which is what the default Jackson converter does.
+ * Run with {@code -prof gc} to compare bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserJsonWriterBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int users;
+
+    private final CountingSink out = new CountingSink();
+    private ObjectMapper objectMapper;
+    private UserJsonWriter writer;
+    private List<UserSummary> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same modules and ISO date strings as the application ObjectMapper, so both paths write identical bytes
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = new UserJsonWriter(objectMapper);
+        page = new ArrayList<>(users);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 6, 30, 12, 0, 0, 123_456_789);
+        for (int i = 0; i < users; i++) {
+            page.add(new UserSummary((long) i, "User " + i, "user" + i + "@example.com", createdAt.plusSeconds(i), 1L));
+        }
+    }
+
+    @Benchmark
+    public long userJsonWriter() throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            writer.writeAll(generator, page);
+        }
+        return out.count;
+    }
+
+    @Benchmark
+    public long objectMapper() throws IOException {
+        objectMapper.writeValue(out, page);
+        return out.count;
+    }
+
+    /**
+     * Discards output; unlike {@link OutputStream#nullOutputStream()} it stays usable after close.
+     */
+    private static final class CountingSink extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserJsonWriterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
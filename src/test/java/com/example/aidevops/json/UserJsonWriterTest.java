@@ -0,0 +1,96 @@
+package com.example.aidevops.json;
+
+import com.example.aidevops.dto.UserBatchResult;
+import com.example.aidevops.dto.UserPage;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hand-written writer must produce exactly the bytes the application ObjectMapper does.
+ */
+@JsonTest
+@Import(UserJsonWriter.class)
+class UserJsonWriterTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserJsonWriter writer;
+
+    private static final List<LocalDateTime> TIMES = List.of(
+            LocalDateTime.of(2024, 1, 2, 3, 4),
+            LocalDateTime.of(2024, 1, 2, 3, 4, 5),
+            LocalDateTime.of(999, 12, 31, 23, 59, 59, 1),
+            LocalDateTime.of(2025, 6, 30, 12, 0, 0, 120_000_000),
+            LocalDateTime.of(2025, 6, 30, 12, 0, 0, 123_456_789),
+            LocalDateTime.of(12345, 1, 1, 0, 0),
+            LocalDateTime.of(-5, 1, 1, 0, 0));
+
+    @Test
+    void summariesMatchObjectMapperOutput() throws Exception {
+        List<UserSummary> users = new ArrayList<>();
+        long id = 1;
+        for (LocalDateTime time : TIMES) {
+            users.add(new UserSummary(id++, "Zoë \"Q\" <tag>\n\t ", "zoe@example.com", time, 3L));
+        }
+        users.add(new UserSummary(null, null, null, null, null));
+
+        for (UserSummary user : users) {
+            assertArrayEquals(objectMapper.writeValueAsBytes(user), writer.toBytes(user), user.toString());
+        }
+        assertConverterMatches(users);
+        assertConverterMatches(new UserPage<>(users, "next", null));
+    }
+
+    @Test
+    void entitiesMatchObjectMapperOutput() throws Exception {
+        User user = new User("Ada", "ada@example.com");
+        user.setId(7L);
+        user.setVersion(2L);
+        assertConverterMatches(user);
+        assertConverterMatches(List.of(user, new User("Bob", "bob@example.com")));
+    }
+
+    @Test
+    void otherCollectionsFallBackToObjectMapper() throws Exception {
+        assertConverterMatches(List.of(Map.of("index", 0, "status", 201)));
+        assertConverterMatches(List.of());
+    }
+
+    @Test
+    void onlyCollectionsThatMayHoldUsersAreClaimed() {
+        UserJsonHttpMessageConverter converter = new UserJsonHttpMessageConverter(writer, objectMapper);
+        Type batchResults = new ParameterizedTypeReference<List<UserBatchResult>>() { }.getType();
+        Type summaries = new ParameterizedTypeReference<List<UserSummary>>() { }.getType();
+        Type unknown = new ParameterizedTypeReference<List<?>>() { }.getType();
+
+        assertFalse(converter.canWrite(batchResults, ArrayList.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(summaries, ArrayList.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(unknown, ArrayList.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(UserSummary.class, UserSummary.class, MediaType.APPLICATION_JSON));
+    }
+
+    private void assertConverterMatches(Object value) throws Exception {
+        UserJsonHttpMessageConverter converter = new UserJsonHttpMessageConverter(writer, objectMapper);
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, value.getClass(), MediaType.APPLICATION_JSON, message);
+        assertEquals(objectMapper.writeValueAsString(value), message.getBodyAsString());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.aidevops.repository;
+
+import com.example.aidevops.AiDevSecOpsApplication;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing all users through the constructor projection versus loading managed
+ * entities and mapping them, both in a read-only transaction as the service does.
+ * Run with {@code -prof gc} to compare bytes allocated per listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserProjectionBenchmark {
+
+    @Param({"100", "1000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Command-line arguments so they override application.properties
+        context = new SpringApplicationBuilder(AiDevSecOpsApplication.class).run(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--spring.datasource.url=jdbc:h2:mem:projectionbenchmark",
+                "--app.api.v2.r2dbc.url=r2dbc:h2:mem:///projectionbenchmark");
+        userRepository = context.getBean(UserRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        userRepository.deleteAllInBatch();
+        List<User> rows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            rows.add(new User("User " + i, "bench" + i + "@example.com"));
+        }
+        userRepository.saveAll(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserSummary> projection() {
+        return readOnly.execute(status -> userRepository.findAllSummaries());
+    }
+
+    @Benchmark
+    public List<UserSummary> entities() {
+        return readOnly.execute(status -> userRepository.findAll().stream().map(UserSummary::from).toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserProjectionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
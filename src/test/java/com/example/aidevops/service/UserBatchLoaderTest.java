@@ -0,0 +1,102 @@
+package com.example.aidevops.service;
+
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class UserBatchLoaderTest {
+
+    @Test
+    void lookupsWithinTheWindowShareOneQuery() throws Exception {
+        UserRepository repository = mock(UserRepository.class);
+        AtomicReference<Thread> queryThread = new AtomicReference<>();
+        when(repository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            queryThread.set(Thread.currentThread());
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .filter(id -> id % 2 == 0)
+                    .map(id -> new UserSummary(id, "User " + id, id + "@example.com", LocalDateTime.now(), 0L))
+                    .toList();
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UserBatchLoader loader = new UserBatchLoader(repository, true, Duration.ofMillis(100), 100,
+                Duration.ofSeconds(5), 2, registry);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<UserSummary>>> futures = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            long key = id;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return loader.load(key);
+            }));
+        }
+        start.countDown();
+        for (int i = 0; i < futures.size(); i++) {
+            Optional<UserSummary> user = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals((i + 1) % 2 == 0, user.isPresent());
+        }
+        executor.shutdown();
+        loader.shutdown();
+
+        verify(repository, times(1)).findSummariesByIdIn(anyCollection());
+        verify(repository, never()).findSummaryById(anyLong());
+        // The window's batch is queried off the scheduler thread, on a platform thread that pinned carriers cannot starve
+        assertTrue(queryThread.get().getName().startsWith("user-batch-dispatch-"), queryThread.get().getName());
+        assertFalse(queryThread.get().isVirtual());
+        assertEquals(8.0, registry.get("users.batch.size").tag("source", "loader").summary().totalAmount());
+    }
+
+    @Test
+    void fullBatchIsDispatchedWithoutWaitingForTheWindow() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findSummariesByIdIn(anyCollection())).thenReturn(List.of());
+        UserBatchLoader loader = new UserBatchLoader(repository, true, Duration.ofMinutes(1), 1,
+                Duration.ofSeconds(5), 2, new SimpleMeterRegistry());
+
+        assertTrue(loader.load(42L).isEmpty());
+        loader.shutdown();
+    }
+
+    @Test
+    void shutdownFailsLookupsStillWaitingForTheWindow() throws Exception {
+        UserRepository repository = mock(UserRepository.class);
+        UserBatchLoader loader = new UserBatchLoader(repository, true, Duration.ofMinutes(1), 100,
+                Duration.ofMinutes(1), 2, new SimpleMeterRegistry());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Optional<UserSummary>> waiting = executor.submit(() -> loader.load(7L));
+        // Let the lookup join the pending batch before shutting down
+        Thread.sleep(200);
+        loader.shutdown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        executor.shutdown();
+        verify(repository, never()).findSummariesByIdIn(anyCollection());
+
+        // Once closed, lookups bypass batching
+        when(repository.findSummaryById(8L)).thenReturn(Optional.empty());
+        assertTrue(loader.load(8L).isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.aidevops.service;
+
+import com.example.aidevops.model.User;
+import com.example.aidevops.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Thundering-herd check: with the lookup cache off, concurrent requests for one
+ * user must still collapse into far fewer queries than callers.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "app.users.cache.enabled=false",
+    "app.users.batch-loader.enabled=false"
+})
+class UserLookupCoalescingTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserBatchLoader batchLoader;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentLookupsOfOneUserShareAQuery() throws Exception {
+        Long id = userRepository.save(new User("Popular", "popular@example.com")).getId();
+        UserRepository slowRepository = mock(UserRepository.class, delegatesTo(userRepository));
+        doAnswer(invocation -> {
+            Thread.sleep(200);
+            return userRepository.findSummaryById(invocation.getArgument(0));
+        }).when(slowRepository).findSummaryById(anyLong());
+        ReflectionTestUtils.setField(batchLoader, "userRepository", slowRepository);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return userService.getUserById(id).orElseThrow().email();
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("popular@example.com", future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+            ReflectionTestUtils.setField(batchLoader, "userRepository", userRepository);
+        }
+
+        int queries = mockingDetails(slowRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findSummaryById"))
+                .mapToInt(invocation -> 1)
+                .sum();
+        assertTrue(queries <= THREADS / 4, "expected coalesced lookups but saw " + queries + " queries");
+        double coalesced = meterRegistry.counter("users.lookup.coalesced", "key", "id").count();
+        assertEquals(THREADS - queries, (int) coalesced);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.aidevops.service;
+
+import com.example.aidevops.exception.DuplicateEmailException;
+import com.example.aidevops.model.User;
+import com.example.aidevops.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentCreatesWithSameEmailYieldOneUserAndConflicts() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    userService.createUser(new User("Racer " + n, "race@example.com"));
+                    created.incrementAndGet();
+                } catch (DuplicateEmailException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, created.get());
+        assertEquals(THREADS - 1, conflicts.get());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsDuplicateEmail() {
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> userService.createUser(new User("x".repeat(300), "long@example.com")));
+        assertFalse(DuplicateEmailException.isCausedBy(e));
+        assertEquals(0, userRepository.count());
+    }
+}
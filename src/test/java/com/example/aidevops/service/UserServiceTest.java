@@ -0,0 +1,80 @@
+package com.example.aidevops.service;
+
+import com.example.aidevops.dto.UserCursor;
+import com.example.aidevops.dto.UserPage;
+import com.example.aidevops.dto.UserSummary;
+import com.example.aidevops.model.User;
+import com.example.aidevops.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void cachedLookupsAreInvalidatedOnEmailChange() {
+        User user = userService.createUser(new User("Cached", "old@example.com"));
+        assertEquals("old@example.com", userService.getUserById(user.getId()).orElseThrow().email());
+        assertTrue(userService.getUserByEmail("old@example.com").isPresent());
+
+        userService.updateUser(user.getId(), new User("Cached", "new@example.com"));
+
+        assertTrue(userService.getUserByEmail("old@example.com").isEmpty());
+        UserSummary byEmail = userService.getUserByEmail("new@example.com").orElseThrow();
+        assertEquals(user.getId(), byEmail.id());
+        assertEquals("new@example.com", userService.getUserById(user.getId()).orElseThrow().email());
+    }
+
+    @Test
+    void secondLevelAndQueryCachesSeeCommittedUpdates() {
+        User user = userService.createUser(new User("Cached", "l2-old@example.com"));
+        assertTrue(userRepository.existsByEmail("l2-old@example.com"));
+        assertEquals("Cached", userRepository.findById(user.getId()).orElseThrow().getName());
+
+        userService.updateUser(user.getId(), new User("Renamed", "l2-new@example.com"));
+
+        assertFalse(userRepository.existsByEmail("l2-old@example.com"));
+        assertTrue(userRepository.existsByEmail("l2-new@example.com"));
+        assertEquals("Renamed", userRepository.findById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void emailEntryIsInvalidatedEvenWhenIdEntryIsNotCached() {
+        User user = userService.createUser(new User("Cached", "mail-only@example.com"));
+        assertTrue(userService.getUserByEmail("mail-only@example.com").isPresent());
+
+        userService.deleteUser(user.getId());
+
+        assertTrue(userService.getUserByEmail("mail-only@example.com").isEmpty());
+        assertTrue(userService.getUserById(user.getId()).isEmpty());
+    }
+
+    @Test
+    void usersWithoutCreatedAtCanBePagedByIt() {
+        User first = new User("Undated", "undated@example.com");
+        first.setCreatedAt(null);
+        userService.createUser(first);
+        userService.createUser(new User("Dated", "dated@example.com"));
+
+        UserPage<UserSummary> page = userService.getUsersPage(UserCursor.first(UserCursor.Sort.CREATED_AT), 1);
+        assertNotNull(page.items().get(0).createdAt());
+        assertEquals("undated@example.com", page.items().get(0).email());
+        UserPage<UserSummary> next = userService.getUsersPage(UserCursor.decode(page.nextCursor()), 1);
+        assertEquals("dated@example.com", next.items().get(0).email());
+    }
+}
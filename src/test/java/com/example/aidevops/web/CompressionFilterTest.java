@@ -0,0 +1,126 @@
+package com.example.aidevops.web;
+
+import com.example.aidevops.model.User;
+import com.example.aidevops.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CompressionFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        for (int i = 0; i < 40; i++) {
+            userRepository.save(new User("Compressed " + i, "compressed" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void compressesLargeJsonForClientsThatAcceptGzip() throws Exception {
+        String plain = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/users")).andReturn()))
+                              .andExpect(header().doesNotExist("Content-Encoding"))
+                              // The identity body is also one choice among encodings
+                              .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                              .andReturn().getResponse().getContentAsString();
+
+        MvcResult async = mockMvc.perform(get("/api/users").header("Accept-Encoding", "gzip, deflate")).andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(async))
+                                                  .andExpect(status().isOk())
+                                                  .andExpect(header().string("Content-Encoding", "gzip"))
+                                                  .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                                                  .andReturn().getResponse();
+        byte[] compressed = response.getContentAsByteArray();
+        assertTrue(compressed.length < plain.length());
+        assertEquals(plain, gunzip(compressed));
+        assertTrue(meterRegistry.get("http.server.compression.ratio").summary().count() > 0);
+    }
+
+    @Test
+    void gzipBodiesCarryTheirOwnEntityTag() throws Exception {
+        String identity = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/users")).andReturn()))
+                                 .andReturn().getResponse().getHeader("ETag");
+        MvcResult async = mockMvc.perform(get("/api/users").header("Accept-Encoding", "gzip")).andReturn();
+        String gzip = mockMvc.perform(asyncDispatch(async))
+                             .andExpect(header().string("Content-Encoding", "gzip"))
+                             .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(identity);
+        assertEquals(identity.substring(0, identity.length() - 1) + "-gzip\"", gzip);
+
+        mockMvc.perform(get("/api/users").header("Accept-Encoding", "gzip").header("If-None-Match", gzip))
+               .andExpect(status().isNotModified())
+               .andExpect(header().string("ETag", gzip));
+        mockMvc.perform(get("/api/users").header("Accept-Encoding", "gzip").header("If-None-Match", identity))
+               .andExpect(status().isNotModified())
+               .andExpect(header().string("ETag", identity));
+    }
+
+    @Test
+    void leavesSmallResponsesAlone() throws Exception {
+        Long id = userRepository.findByEmail("compressed0@example.com").orElseThrow().getId();
+        MockHttpServletResponse response = mockMvc.perform(get("/api/users/" + id).header("Accept-Encoding", "gzip"))
+                                                  .andExpect(status().isOk())
+                                                  .andExpect(header().doesNotExist("Content-Encoding"))
+                                                  .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                                                  .andReturn().getResponse();
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        assertTrue(response.getContentAsString().contains("compressed0@example.com"));
+
+        MvcResult refused = mockMvc.perform(get("/api/users").header("Accept-Encoding", "gzip;q=0")).andReturn();
+        mockMvc.perform(asyncDispatch(refused))
+               .andExpect(header().doesNotExist("Content-Encoding"))
+               .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")));
+    }
+
+    @Test
+    void compressesStreamedExports() throws Exception {
+        MvcResult async = mockMvc.perform(get("/api/users/export").header("Accept-Encoding", "gzip")).andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(async))
+                                                  .andExpect(header().string("Content-Encoding", "gzip"))
+                                                  .andReturn().getResponse();
+        String body = gunzip(response.getContentAsByteArray());
+        assertEquals(40, body.split("\n").length);
+    }
+
+    @Test
+    void servesPrecompressedStaticAssets() throws Exception {
+        mockMvc.perform(get("/js/app.js").header("Accept-Encoding", "gzip"))
+               .andExpect(status().isOk())
+               .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.aidevops.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void limitGrowsWhileLatencyHoldsAndShrinksWhenItRises() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 4, 200, 1.5, 0.2, 10);
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, false, limit.limit());
+        }
+        int grown = limit.limit();
+        assertTrue(grown > 20, "expected growth but limit is " + grown);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(80 * MILLIS, false, limit.limit());
+        }
+        assertTrue(limit.limit() < grown / 2, "expected the limit to back off but it is " + limit.limit());
+        assertTrue(limit.limit() >= 4);
+    }
+
+    @Test
+    void limitHoldsWhenDemandIsLow() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 4, 200, 1.5, 0.2, 10);
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, false, 2);
+        }
+        assertEquals(20, limit.limit());
+    }
+
+    @Test
+    void rejectsRequestsOverTheLimitWithoutQueuing() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(true, 1, 1, 1, 1, 1, 1, 1.5, 0.2, 20,
+                Duration.ofSeconds(2), List.of("/api/users/stream"), meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<MockHttpServletResponse> slow = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/users/1"), response, (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), rejected, (req, res) -> fail("should not run"));
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("error"));
+
+        // Writes, excluded paths and other APIs have their own budget
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/users"), write, (req, res) -> { });
+        assertEquals(200, write.getStatus());
+        MockHttpServletResponse stream = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users/stream"), stream, (req, res) -> { });
+        assertEquals(200, stream.getStatus());
+
+        release.countDown();
+        assertEquals(200, slow.get(10, TimeUnit.SECONDS).getStatus());
+        MockHttpServletResponse after = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), after, (req, res) -> { });
+        assertEquals(200, after.getStatus());
+
+        assertEquals(1.0, meterRegistry.get("http.server.concurrency.rejected").tag("class", "read").counter().count());
+        assertEquals(0.0, meterRegistry.get("http.server.concurrency.inflight").tag("class", "read").gauge().value());
+        assertEquals(1.0, meterRegistry.get("http.server.concurrency.limit").tag("class", "write").gauge().value());
+    }
+}
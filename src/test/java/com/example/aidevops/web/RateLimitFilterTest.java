@@ -0,0 +1,110 @@
+package com.example.aidevops.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsABurstThenRejectsWithRateLimitHeaders() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(true, List.of("POST /api/users/**=3/1m"), "X-API-Key",
+                Set.of("10.0.0.1", "partner-key"), Duration.ofMinutes(10), 1000, meterRegistry);
+        try {
+            for (int remaining = 2; remaining >= 0; remaining--) {
+                MockHttpServletResponse response = post(filter, "10.0.0.1", null);
+                assertEquals(200, response.getStatus());
+                assertEquals("3", response.getHeader(RateLimitFilter.LIMIT_HEADER));
+                assertEquals(String.valueOf(remaining), response.getHeader(RateLimitFilter.REMAINING_HEADER));
+            }
+
+            MockHttpServletResponse rejected = post(filter, "10.0.0.1", null);
+            assertEquals(429, rejected.getStatus());
+            assertEquals("0", rejected.getHeader(RateLimitFilter.REMAINING_HEADER));
+            int retryAfter = Integer.parseInt(rejected.getHeader("Retry-After"));
+            assertTrue(retryAfter > 0 && retryAfter <= 20, "one token refills every 20s, got " + retryAfter);
+            assertTrue(rejected.getContentAsString().contains("Rate limit exceeded"));
+
+            // An unknown key is charged to the address, so made-up keys do not escape the limit
+            assertEquals(429, post(filter, "10.0.0.1", "made-up-key").getStatus());
+
+            // Other clients, configured API keys (even one equal to the throttled address) and unmatched routes are unaffected
+            assertEquals(200, post(filter, "10.0.0.2", null).getStatus());
+            assertEquals(200, post(filter, "10.0.0.1", "10.0.0.1").getStatus());
+            assertEquals(200, post(filter, "10.0.0.1", "partner-key").getStatus());
+            MockHttpServletResponse read = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), read, (req, res) -> { });
+            assertNull(read.getHeader(RateLimitFilter.LIMIT_HEADER));
+
+            assertEquals(2.0, meterRegistry.get("http.server.ratelimit.rejected").counter().count());
+            assertEquals(4.0, meterRegistry.get("http.server.ratelimit.clients").gauge().value());
+        } finally {
+            filter.shutdown();
+        }
+    }
+
+    @Test
+    void rulesMatchByMethodAndPattern() {
+        RateLimitRule one = RateLimitRule.parse("PUT /api/users/*=10/1s");
+        assertTrue(one.matches("PUT", "/api/users/5", 0));
+        assertTrue(one.matches("PUT", "/ctx/api/users/5", 4));
+        assertFalse(one.matches("PUT", "/api/users", 0));
+        assertFalse(one.matches("PUT", "/api/users/5/x", 0));
+        assertFalse(one.matches("DELETE", "/api/users/5", 0));
+
+        RateLimitRule any = RateLimitRule.parse("* /api/users/**=10/1s");
+        assertTrue(any.matches("GET", "/api/users", 0));
+        assertTrue(any.matches("DELETE", "/api/users/5/x", 0));
+        assertFalse(any.matches("GET", "/api/usersX", 0));
+
+        assertThrows(IllegalArgumentException.class, () -> RateLimitRule.parse("POST /api/*/users=1/1s"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimitRule.parse("POST /api/users"));
+    }
+
+    @Test
+    void refillsOverTimeAndEvictsIdleClients() {
+        RateLimiter limiter = new RateLimiter(List.of(RateLimitRule.parse("* /api/users/**=1/1s")), 0, 2);
+        assertEquals(0, limiter.tryAcquire("a", false, 0, 0));
+        assertTrue(limiter.tryAcquire("a", false, 0, SECOND / 2) < 0);
+        assertEquals(0, limiter.tryAcquire("a", false, 0, SECOND));
+
+        // The table is full, so a third client shares the overflow bucket instead of growing it
+        limiter.tryAcquire("b", false, 0, SECOND);
+        assertEquals(0, limiter.tryAcquire("c", false, 0, SECOND));
+        assertTrue(limiter.tryAcquire("d", false, 0, SECOND) < 0);
+        assertEquals(2, limiter.size());
+
+        // Idle clients are only dropped by the sweep, never while registering a new one
+        assertEquals(0, limiter.tryAcquire("e", false, 0, 3 * SECOND));
+        assertTrue(limiter.tryAcquire("f", false, 0, 3 * SECOND) < 0);
+        assertEquals(2, limiter.size());
+
+        // Idle for longer than a full refill: dropping the state loses nothing
+        assertEquals(0, limiter.evictIdle(SECOND + SECOND / 2));
+        assertEquals(2, limiter.evictIdle(3 * SECOND));
+        assertEquals(0, limiter.size());
+        assertEquals(0, limiter.tryAcquire("f", false, 0, 3 * SECOND));
+    }
+
+    private static MockHttpServletResponse post(RateLimitFilter filter, String address, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users");
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.aidevops.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decision path of {@link RateLimiter} under contention: 8 threads matching a rule
+ * and taking tokens, either all from one hot client's bucket or spread over many.
+ * Run with {@code -prof gc} to confirm the path does not allocate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "1000"})
+    public int clients;
+
+    private RateLimiter limiter;
+    private String[] addresses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        limiter = new RateLimiter(List.of(
+                RateLimitRule.parse("POST /api/users/**=30/1m"),
+                RateLimitRule.parse("PUT /api/users/*=120/1m"),
+                RateLimitRule.parse("GET /api/users/**=1000000000/1s")), TimeUnit.MINUTES.toNanos(10), 100_000);
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10.0." + (i / 256) + "." + (i % 256);
+            limiter.tryAcquire(addresses[i], false, 2, System.nanoTime());
+        }
+    }
+
+    @Benchmark
+    public long decide() {
+        String address = addresses[ThreadLocalRandom.current().nextInt(addresses.length)];
+        int rule = limiter.match("GET", "/api/users/42", 0);
+        return limiter.tryAcquire(address, false, rule, System.nanoTime());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
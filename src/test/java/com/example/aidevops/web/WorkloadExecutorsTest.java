@@ -0,0 +1,68 @@
+package com.example.aidevops.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadExecutorsTest {
+
+    @Test
+    void classifiesByRouteOrHeader() {
+        WorkloadExecutors workloads = new WorkloadExecutors("X-Request-Class",
+                List.of("POST /api/users/batch", "GET /api/users/export"), 2, 10, 1, 1, new SimpleMeterRegistry());
+        try {
+            assertEquals(WorkloadExecutors.RequestClass.BULK, workloads.classify(new MockHttpServletRequest("POST", "/api/users/batch")));
+            assertEquals(WorkloadExecutors.RequestClass.INTERACTIVE, workloads.classify(new MockHttpServletRequest("GET", "/api/users")));
+            assertEquals(WorkloadExecutors.RequestClass.INTERACTIVE, workloads.classify(new MockHttpServletRequest("GET", "/api/users/batch")));
+
+            MockHttpServletRequest demoted = new MockHttpServletRequest("GET", "/api/users");
+            demoted.addHeader("X-Request-Class", "bulk");
+            assertEquals(WorkloadExecutors.RequestClass.BULK, workloads.classify(demoted));
+            MockHttpServletRequest promoted = new MockHttpServletRequest("POST", "/api/users/batch");
+            promoted.addHeader("X-Request-Class", "interactive");
+            assertEquals(WorkloadExecutors.RequestClass.BULK, workloads.classify(promoted));
+        } finally {
+            workloads.shutdown();
+        }
+    }
+
+    @Test
+    void boundsTheBulkQueueWithoutTouchingInteractiveWork() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WorkloadExecutors workloads = new WorkloadExecutors("X-Request-Class", List.of(), 2, 10, 1, 1, meterRegistry);
+        try {
+            AsyncTaskExecutor bulk = workloads.executor(WorkloadExecutors.RequestClass.BULK);
+            CountDownLatch release = new CountDownLatch(1);
+            Future<?> running = bulk.submit(() -> {
+                release.await(10, TimeUnit.SECONDS);
+                return null;
+            });
+            Future<?> queued = bulk.submit(() -> null);
+            assertThrows(TaskRejectedException.class, () -> bulk.submit(() -> null));
+            assertEquals(1.0, meterRegistry.get("http.server.workload.queue.depth").tag("class", "bulk").gauge().value());
+
+            // The interactive pool is unaffected by a saturated bulk pool
+            String thread = workloads.executor(WorkloadExecutors.RequestClass.INTERACTIVE)
+                    .submit(() -> Thread.currentThread().getName()).get(10, TimeUnit.SECONDS);
+            assertTrue(thread.startsWith("interactive-request-"), thread);
+
+            release.countDown();
+            running.get(10, TimeUnit.SECONDS);
+            queued.get(10, TimeUnit.SECONDS);
+            assertEquals(1.0, meterRegistry.get("http.server.workload.rejected").tag("class", "bulk").counter().count());
+            assertEquals(2, meterRegistry.get("http.server.workload.wait").tag("class", "bulk").timer().count());
+        } finally {
+            workloads.shutdown();
+        }
+    }
+}